@@ -0,0 +1,82 @@
+package net.honeyberries.betterSpawnProtect.benchmark;
+
+import net.honeyberries.betterSpawnProtect.api.SpawnProtectionService;
+import net.honeyberries.betterSpawnProtect.region.ProtectionSnapshot;
+import net.honeyberries.betterSpawnProtect.region.RegionFlag;
+import net.honeyberries.betterSpawnProtect.region.RegionIndex;
+import net.honeyberries.betterSpawnProtect.util.CoordinateKeys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures checking a schematic paste of 32x32x32 blocks, once through the batch query of the
+ * {@link SpawnProtectionService} and once with a single query per block. The paste is placed
+ * far outside any region, across the edge of the spawn, or deep inside the spawn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchQueryBenchmark {
+
+    private static final int SIZE = 32;
+
+    @Param({"outside", "boundary", "inside"})
+    public String placement;
+
+    private RegionIndex index;
+    private long[] positions;
+    private final BitSet result = new BitSet(SIZE * SIZE * SIZE);
+
+    @Setup
+    public void setup() {
+        ProtectionSnapshot snapshot = Fixtures.snapshot(300);
+        index = snapshot.index(Fixtures.WORLD);
+        int originX = switch (placement) {
+            case "outside" -> 2500;
+            case "boundary" -> (int) Fixtures.SPAWN_RADIUS - SIZE / 2;
+            default -> -SIZE / 2;
+        };
+        // Pastes write blocks in x, z, y order, so consecutive positions share a chunk
+        positions = new long[SIZE * SIZE * SIZE];
+        int i = 0;
+        for (int y = 0; y < SIZE; y++) {
+            for (int z = 0; z < SIZE; z++) {
+                for (int x = 0; x < SIZE; x++) {
+                    positions[i++] = SpawnProtectionService.pack(originX + x, 64 + y, z - SIZE / 2);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public BitSet batch() {
+        index.isProtected(positions, positions.length, RegionFlag.PLACE.bit(), result);
+        return result;
+    }
+
+    @Benchmark
+    public BitSet perBlock() {
+        int mask = RegionFlag.PLACE.bit();
+        for (int i = 0; i < positions.length; i++) {
+            long position = positions[i];
+            result.set(i, index.isProtected(CoordinateKeys.blockKeyX(position), CoordinateKeys.blockKeyY(position),
+                    CoordinateKeys.blockKeyZ(position), mask));
+        }
+        return result;
+    }
+}
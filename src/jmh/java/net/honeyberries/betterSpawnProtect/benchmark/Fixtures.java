@@ -0,0 +1,73 @@
+package net.honeyberries.betterSpawnProtect.benchmark;
+
+import net.honeyberries.betterSpawnProtect.region.ProtectedRegion;
+import net.honeyberries.betterSpawnProtect.region.ProtectionSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Shared setup for the benchmarks. The fixtures mirror a typical hub: one spawn region with a
+ * radius of 64 blocks at the origin of {@code world}, surrounded by many small regions. All
+ * positions are generated from fixed seeds so that runs are comparable.
+ */
+final class Fixtures {
+
+    static final String WORLD = "world";
+    static final String OTHER_WORLD = "world_nether";
+    static final double SPAWN_RADIUS = 64.0;
+
+    private Fixtures() {
+    }
+
+    /**
+     * Compiles a snapshot with the spawn region and {@code regionCount - 1} small regions
+     * spread over a 4000x4000 block area that keeps clear of the spawn.
+     *
+     * @param regionCount The total number of regions, including the spawn region.
+     * @return The compiled snapshot.
+     */
+    static ProtectionSnapshot snapshot(int regionCount) {
+        Random random = new Random(42L);
+        ProtectedRegion spawn = new ProtectedRegion("spawn", WORLD, 0.5, 64.0, 0.5, SPAWN_RADIUS);
+        List<ProtectedRegion> regions = new ArrayList<>(regionCount);
+        regions.add(spawn);
+        while (regions.size() < regionCount) {
+            double x = random.nextInt(4000) - 2000 + 0.5;
+            double z = random.nextInt(4000) - 2000 + 0.5;
+            if (Math.abs(x) < 200 && Math.abs(z) < 200) {
+                continue;
+            }
+            regions.add(new ProtectedRegion("region" + regions.size(), WORLD, x, 64.0, z, 4 + random.nextInt(28)));
+        }
+        return ProtectionSnapshot.compile(spawn, regions, ProtectionSnapshot.EMPTY);
+    }
+
+    /**
+     * A stand-in for a Bukkit block, exposing only the coordinates the protection code reads.
+     */
+    static final class StandInBlock {
+        private final int x;
+        private final int y;
+        private final int z;
+
+        StandInBlock(int x, int y, int z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        int getX() {
+            return x;
+        }
+
+        int getY() {
+            return y;
+        }
+
+        int getZ() {
+            return z;
+        }
+    }
+}
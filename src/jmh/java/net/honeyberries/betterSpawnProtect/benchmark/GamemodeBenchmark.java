@@ -0,0 +1,139 @@
+package net.honeyberries.betterSpawnProtect.benchmark;
+
+import net.honeyberries.betterSpawnProtect.manager.RegionTracker;
+import net.honeyberries.betterSpawnProtect.manager.RegionTracker.PlayerState;
+import net.honeyberries.betterSpawnProtect.region.ProtectedRegion;
+import net.honeyberries.betterSpawnProtect.region.RegionIndex;
+import net.honeyberries.betterSpawnProtect.task.GamemodeTask;
+import org.bukkit.GameMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-player gamemode work as the plugin runs it: the region tracker's block
+ * comparison, region lookup and transition check, followed by the game mode decision for
+ * players whose regions changed or who are re-evaluated by a sweep. Players are stand-ins
+ * walking around the spawn, so that roughly a third of them stand inside the protected area.
+ * <p>
+ * {@code move} is one movement step of every player. {@code globalSweepTick} is the tick on
+ * which the global sweep re-evaluates every player, and {@code staggeredSweepTick} is one tick
+ * of the staggered sweep, which re-evaluates one of {@code buckets} buckets of players.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GamemodeBenchmark {
+
+    /**
+     * The number of positions on each player's walk, a power of two.
+     */
+    private static final int PATH_LENGTH = 256;
+
+    @Param({"20", "200", "1000"})
+    public int playerCount;
+
+    @Param({"100"})
+    public int buckets;
+
+    private RegionIndex index;
+    private StandInPlayer[] players;
+    private int step;
+    private int tick;
+
+    @Setup
+    public void setup() {
+        index = Fixtures.snapshot(300).index(Fixtures.WORLD);
+        Random random = new Random(11L);
+        players = new StandInPlayer[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            GameMode gameMode = random.nextBoolean() ? GameMode.SURVIVAL : GameMode.ADVENTURE;
+            // Walk in steps of a few tenths of a block, so most steps stay on the same block
+            double[] xs = new double[PATH_LENGTH];
+            double[] zs = new double[PATH_LENGTH];
+            double x = random.nextInt(220) - 110 + 0.5;
+            double z = random.nextInt(220) - 110 + 0.5;
+            for (int j = 0; j < PATH_LENGTH; j++) {
+                x += (random.nextDouble() - 0.5) * 0.6;
+                z += (random.nextDouble() - 0.5) * 0.6;
+                xs[j] = x;
+                zs[j] = z;
+            }
+            players[i] = new StandInPlayer(new PlayerState(), xs, zs, gameMode, random.nextInt(10) == 0, i % buckets);
+            players[i].state.moveTo(null, index, xs[0], 64.0, zs[0]);
+        }
+    }
+
+    @Benchmark
+    public void move(Blackhole blackhole) {
+        int next = step = (step + 1) & (PATH_LENGTH - 1);
+        for (StandInPlayer player : players) {
+            double x = player.xs[next];
+            double z = player.zs[next];
+            if (player.state.isAt(null, (int) Math.floor(x), 64, (int) Math.floor(z))) {
+                continue;
+            }
+            evaluate(player, x, z, blackhole);
+        }
+    }
+
+    @Benchmark
+    public void globalSweepTick(Blackhole blackhole) {
+        for (StandInPlayer player : players) {
+            evaluate(player, player.xs[step], player.zs[step], blackhole);
+        }
+    }
+
+    @Benchmark
+    public void staggeredSweepTick(Blackhole blackhole) {
+        int bucket = tick = (tick + 1) % buckets;
+        for (StandInPlayer player : players) {
+            if (player.bucket == bucket) {
+                evaluate(player, player.xs[step], player.zs[step], blackhole);
+            }
+        }
+    }
+
+    /**
+     * Re-evaluates the player's regions at the given position, and their game mode if the
+     * regions changed, like the tracker followed by the gamemode handling.
+     */
+    private void evaluate(StandInPlayer player, double x, double z, Blackhole blackhole) {
+        ProtectedRegion[] previous = player.state.moveTo(null, index, x, 64.0, z);
+        ProtectedRegion[] current = player.state.getRegions();
+        if (previous.length == 0 && current.length == 0) {
+            return;
+        }
+        boolean changed = previous.length != current.length;
+        for (int i = 0; !changed && i < previous.length; i++) {
+            changed = !RegionTracker.containsSame(current, previous[i]);
+        }
+        if (changed) {
+            boolean inside = player.state.isInside(GamemodeTask.ENFORCED_FLAGS);
+            blackhole.consume(GamemodeTask.resolveGameMode(player.gameMode, inside, inside && player.bypass));
+        }
+    }
+
+    /**
+     * A stand-in for an online player, holding their tracked state, a precomputed walk, and
+     * what the gamemode decision reads.
+     */
+    private record StandInPlayer(PlayerState state, double[] xs, double[] zs, GameMode gameMode, boolean bypass,
+                                 int bucket) {
+    }
+}
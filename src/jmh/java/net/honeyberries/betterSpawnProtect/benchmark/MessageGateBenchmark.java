@@ -0,0 +1,71 @@
+package net.honeyberries.betterSpawnProtect.benchmark;
+
+import net.honeyberries.betterSpawnProtect.util.MessageGate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the message cooldown check under contention from several threads, as happens when
+ * denied events fire on different region threads. One case hammers a single player, the other
+ * spreads the calls over many players.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class MessageGateBenchmark {
+
+    private static final int PLAYER_COUNT = 1024;
+
+    private MessageGate gate;
+    private UUID sharedPlayer;
+    private UUID[] players;
+
+    @Setup
+    public void setup() {
+        gate = new MessageGate(4000L);
+        sharedPlayer = UUID.randomUUID();
+        players = new UUID[PLAYER_COUNT];
+        for (int i = 0; i < PLAYER_COUNT; i++) {
+            players[i] = UUID.randomUUID();
+        }
+    }
+
+    /**
+     * The position of a thread in the player array.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int advance() {
+            next = (next + 1) & (PLAYER_COUNT - 1);
+            return next;
+        }
+    }
+
+    @Benchmark
+    public boolean samePlayer() {
+        return gate.canSend(sharedPlayer);
+    }
+
+    @Benchmark
+    public boolean manyPlayers(Cursor cursor) {
+        return gate.canSend(players[cursor.advance()]);
+    }
+}
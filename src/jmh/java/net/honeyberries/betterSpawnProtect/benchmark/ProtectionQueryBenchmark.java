@@ -0,0 +1,79 @@
+package net.honeyberries.betterSpawnProtect.benchmark;
+
+import net.honeyberries.betterSpawnProtect.region.ProtectionSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single protection check, as performed by {@code ProtectionManager.isProtected}
+ * for every block event. The four cases cover a block deep inside the spawn, a block far
+ * outside any region, a block in a chunk crossed by the spawn's edge, and a block in a world
+ * without any regions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtectionQueryBenchmark {
+
+    @Param({"1", "300"})
+    public int regionCount;
+
+    private ProtectionSnapshot snapshot;
+
+    // Kept in fields so the JIT cannot fold the coordinates into constants
+    private String world;
+    private String otherWorld;
+    private int y;
+    private int insideX, insideZ;
+    private int outsideX, outsideZ;
+    private int boundaryX, boundaryZ;
+
+    @Setup
+    public void setup() {
+        snapshot = Fixtures.snapshot(regionCount);
+        world = Fixtures.WORLD;
+        otherWorld = Fixtures.OTHER_WORLD;
+        y = 64;
+        insideX = 3;
+        insideZ = -5;
+        outsideX = 2500;
+        outsideZ = 2500;
+        // The spawn edge runs through this chunk, so the block needs the full distance check
+        boundaryX = (int) Fixtures.SPAWN_RADIUS - 2;
+        boundaryZ = 7;
+    }
+
+    @Benchmark
+    public boolean inside() {
+        return snapshot.isProtected(world, insideX, y, insideZ);
+    }
+
+    @Benchmark
+    public boolean outside() {
+        return snapshot.isProtected(world, outsideX, y, outsideZ);
+    }
+
+    @Benchmark
+    public boolean boundary() {
+        return snapshot.isProtected(world, boundaryX, y, boundaryZ);
+    }
+
+    @Benchmark
+    public boolean wrongWorld() {
+        return snapshot.isProtected(otherWorld, insideX, y, insideZ);
+    }
+}
@@ -2,15 +2,33 @@ package net.honeyberries.betterSpawnProtect;
 
 import io.papermc.paper.command.brigadier.Commands;
 import io.papermc.paper.plugin.lifecycle.event.types.LifecycleEvents;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import net.honeyberries.betterSpawnProtect.api.SpawnProtectionService;
 import net.honeyberries.betterSpawnProtect.command.BetterSpawnProtectCommand;
 import net.honeyberries.betterSpawnProtect.configuration.ConfigManager;
+import net.honeyberries.betterSpawnProtect.configuration.ConfigWatcher;
+import net.honeyberries.betterSpawnProtect.listener.GamemodeListener;
+import net.honeyberries.betterSpawnProtect.listener.PhysicsListeners;
 import net.honeyberries.betterSpawnProtect.listener.ProtectionListener;
+import net.honeyberries.betterSpawnProtect.listener.RegionTrackerListener;
+import net.honeyberries.betterSpawnProtect.listener.SpawnListener;
+import net.honeyberries.betterSpawnProtect.listener.WorldListener;
+import net.honeyberries.betterSpawnProtect.manager.BypassCache;
 import net.honeyberries.betterSpawnProtect.manager.ProtectionManager;
+import net.honeyberries.betterSpawnProtect.manager.RegionTracker;
+import net.honeyberries.betterSpawnProtect.metrics.Metrics;
+import net.honeyberries.betterSpawnProtect.metrics.MetricsEndpoint;
 import net.honeyberries.betterSpawnProtect.task.GamemodeTask;
+import net.honeyberries.betterSpawnProtect.task.OutlineRenderer;
 import net.honeyberries.betterSpawnProtect.util.MessageGate;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 /**
@@ -23,31 +41,80 @@ import java.util.logging.Level;
 public class BetterSpawnProtect extends JavaPlugin {
 
     private ProtectionManager protectionManager;
+    private BypassCache bypassCache;
+    private RegionTracker regionTracker;
     private GamemodeTask gamemodeTask;
+    private PhysicsListeners physicsListeners;
+    private SpawnListener spawnListener;
+    private OutlineRenderer outlineRenderer;
+    private MessageGate messageGate;
+    private ScheduledTask messageGatePurgeTask;
+    private final Metrics metrics = new Metrics();
+    private final MetricsEndpoint metricsEndpoint = new MetricsEndpoint(metrics);
+    private ConfigWatcher configWatcher;
+
+    /**
+     * Serializes reloads, so that two reloads requested in quick succession cannot publish
+     * their results out of order.
+     */
+    private final Object reloadLock = new Object();
 
     /**
      * Called when the plugin is enabled.
      * <p>
      * This method initializes the plugin's components, registers event listeners,
-     * starts the gamemode task, and registers the commands.
+     * starts the gamemode sweep, and registers the commands.
      */
     @Override
     public void onEnable() {
         // Initialize the configuration manager to handle config.yml
         ConfigManager configManager = ConfigManager.getInstance(this);
 
-        // Initialize the protection manager to handle the protected area
+        // Initialize the protection manager to handle the protected area, and keep it bound to worlds as they load and unload
         this.protectionManager = new ProtectionManager(this);
+        getServer().getPluginManager().registerEvents(new WorldListener(protectionManager), this);
+
+        // Initialize the message gate with the configured cooldown to prevent spam,
+        // and periodically drop players whose cooldown has run out
+        this.messageGate = new MessageGate(configManager.getMessageCooldownMillis());
+        this.messageGatePurgeTask = getServer().getAsyncScheduler().runAtFixedRate(this, task -> messageGate.purgeExpired(),
+                1, 1, TimeUnit.MINUTES);
+
+        // Cache bypass decisions so protected events do not query permissions every time
+        this.bypassCache = new BypassCache();
+
+        // Record per-event metrics and serve them locally, if enabled
+        applyMetricsConfig(configManager);
 
-        // Initialize the message gate with a 4-second cooldown to prevent spam
-        MessageGate messageGate = new MessageGate(4000L);
+        // Reload automatically when config.yml is edited by other tools, if enabled
+        this.configWatcher = new ConfigWatcher(configManager.getConfigFile().toPath(), this::onConfigFileChanged, getLogger());
+        applyWatcherConfig(configManager);
 
         // Register the event listener to protect the spawn area
-        getServer().getPluginManager().registerEvents(new ProtectionListener(protectionManager, messageGate), this);
+        getServer().getPluginManager().registerEvents(new ProtectionListener(protectionManager, messageGate, bypassCache, metrics), this);
 
-        // Start the repeating task to check player gamemodes
-        this.gamemodeTask = new GamemodeTask(this, protectionManager);
-        gamemodeTask.startTask();
+        // Register only the enabled categories of natural block changes, since they fire far more often than player actions
+        this.physicsListeners = new PhysicsListeners(this, protectionManager, metrics);
+        physicsListeners.apply(configManager);
+
+        // Listen for creature spawns only while spawn-control rules exist
+        this.spawnListener = new SpawnListener(this, protectionManager, metrics);
+        spawnListener.apply();
+
+        // Track the regions each player stands in, firing region enter and leave events on transitions
+        this.regionTracker = new RegionTracker(this, protectionManager, metrics);
+        getServer().getPluginManager().registerEvents(new RegionTrackerListener(regionTracker), this);
+
+        // Enforce player gamemodes on region boundary crossings, with a periodic sweep as a safety net
+        this.gamemodeTask = new GamemodeTask(this, regionTracker, bypassCache, metrics);
+        getServer().getPluginManager().registerEvents(new GamemodeListener(gamemodeTask), this);
+        gamemodeTask.apply(configManager);
+
+        // Draw region outlines for players who use /bsp show
+        this.outlineRenderer = new OutlineRenderer(this, protectionManager, configManager.getShowParticlesPerTick());
+
+        // Expose the protection queries to other plugins
+        getServer().getServicesManager().register(SpawnProtectionService.class, protectionManager, this, ServicePriority.Normal);
 
         // Register the plugin's commands
         registerCommands();
@@ -58,17 +125,36 @@ public class BetterSpawnProtect extends JavaPlugin {
     /**
      * Called when the plugin is disabled.
      * <p>
-     * This method stops the gamemode task and saves the configuration to ensure
-     * that any changes are persisted.
+     * This method stops the gamemode sweep and flushes the configuration to ensure
+     * that any pending changes are persisted.
      */
     @Override
     public void onDisable() {
-        // Stop the gamemode task to prevent it from running while the plugin is disabled
+        // Withdraw the protection service, so other plugins stop querying a disabled plugin
+        getServer().getServicesManager().unregisterAll(this);
+
+        // Stop the gamemode sweep to prevent it from running while the plugin is disabled
         if (gamemodeTask != null) {
             gamemodeTask.stopTask();
         }
+        if (regionTracker != null) {
+            regionTracker.clear();
+        }
+        if (outlineRenderer != null) {
+            outlineRenderer.stopAll();
+        }
+        if (protectionManager != null) {
+            protectionManager.close();
+        }
+        if (messageGatePurgeTask != null) {
+            messageGatePurgeTask.cancel();
+        }
+        metricsEndpoint.stop();
+        if (configWatcher != null) {
+            configWatcher.stop();
+        }
 
-        // Save the configuration to persist any changes made during the session
+        // Save the configuration to persist any changes made during the session, including pending write-behind saves
         ConfigManager configManager = ConfigManager.getInstance();
         if (configManager != null) {
             configManager.saveConfig();
@@ -82,7 +168,7 @@ public class BetterSpawnProtect extends JavaPlugin {
      * This method sets up the main `/bsp` command and its subcommands.
      */
     private void registerCommands() {
-        BetterSpawnProtectCommand commandManager = new BetterSpawnProtectCommand(this, protectionManager);
+        BetterSpawnProtectCommand commandManager = new BetterSpawnProtectCommand(this, protectionManager, outlineRenderer, metrics);
         try {
             getLifecycleManager().registerEventHandler(LifecycleEvents.COMMANDS, event -> {
                 Commands commands = event.registrar();
@@ -98,13 +184,139 @@ public class BetterSpawnProtect extends JavaPlugin {
     }
 
     /**
-     * Reloads the plugin's configuration and updates the protection manager.
+     * Reloads the plugin's configuration and updates the protection manager without blocking
+     * the calling thread.
+     * <p>
+     * The file is read, parsed and validated on an async thread, and the region geometry is
+     * compiled there as well. Both are swapped in atomically, so protection checks keep using
+     * the previous regions until the new ones are complete. If the file cannot be read or is not
+     * valid YAML, the current configuration stays active. Changes made by commands that are
+     * still waiting to be saved are written first, so they take part in the reload. The
+     * remaining settings, such as the listener groups and metrics, are then applied on the
+     * global region thread.
      * <p>
-     * This method is called when the `/bsp reload` command is executed.
+     * This method is called when the `/bsp reload` command is executed, and when
+     * {@code config.yml} changes on disk while file watching is enabled.
+     *
+     * @return A future that completes once the new configuration is fully applied, or
+     * completes exceptionally if the file could not be loaded or applying it failed.
+     */
+    public CompletableFuture<Void> reloadAll() {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        getServer().getAsyncScheduler().runNow(this, task -> {
+            ConfigManager configManager = ConfigManager.getInstance();
+            try {
+                synchronized (reloadLock) {
+                    // Persist recent command changes first, so the reload keeps rather than reverts them
+                    configManager.flushPendingSave();
+                    configManager.apply(configManager.parseFromDisk());
+                    protectionManager.reloadFromConfig();
+                }
+            } catch (IOException | InvalidConfigurationException e) {
+                getLogger().log(Level.WARNING, "Could not reload config.yml; keeping the current configuration.", e);
+                result.completeExceptionally(e);
+                return;
+            } catch (RuntimeException e) {
+                getLogger().log(Level.SEVERE, "Failed to reload config.yml.", e);
+                result.completeExceptionally(e);
+                return;
+            }
+
+            getServer().getGlobalRegionScheduler().execute(this, () -> {
+                try {
+                    physicsListeners.apply(configManager);
+                    spawnListener.apply();
+                    gamemodeTask.apply(configManager);
+                    messageGate.setCooldown(configManager.getMessageCooldownMillis());
+                    outlineRenderer.setParticlesPerTick(configManager.getShowParticlesPerTick());
+                    applyMetricsConfig(configManager);
+                    applyWatcherConfig(configManager);
+                    bypassCache.invalidateAll();
+                    refreshGamemodes();
+                } catch (RuntimeException e) {
+                    getLogger().log(Level.SEVERE, "Failed to apply the reloaded configuration.", e);
+                    result.completeExceptionally(e);
+                    return;
+                }
+                getLogger().info("BetterSpawnProtect configuration reloaded. " + protectionManager.getCenterSummary());
+                result.complete(null);
+            });
+        });
+        return result;
+    }
+
+    /**
+     * Reloads the configuration after {@code config.yml} changed on disk, unless the change
+     * is the plugin's own write-behind save.
      */
-    public void reloadAll() {
-        ConfigManager.getInstance().reloadConfig();
-        protectionManager.reloadFromConfig();
-        getLogger().info("BetterSpawnProtect configuration reloaded. " + protectionManager.getCenterSummary());
+    private void onConfigFileChanged() {
+        if (isEnabled() && ConfigManager.getInstance().isChangedOnDisk()) {
+            getLogger().info("config.yml changed on disk, reloading.");
+            reloadAll();
+        }
+    }
+
+    /**
+     * Returns the tracker of the regions each online player stands in.
+     *
+     * @return The region tracker.
+     */
+    public RegionTracker getRegionTracker() {
+        return regionTracker;
+    }
+
+    /**
+     * Re-evaluates the regions and gamemode of every online player. This is called whenever the protected
+     * area changes, since players who are not moving would otherwise only be updated by the
+     * next periodic sweep.
+     */
+    public void refreshGamemodes() {
+        gamemodeTask.refreshAll();
+    }
+
+    /**
+     * Starts or stops watching {@code config.yml} according to the configuration. A failure to
+     * watch the file is logged and leaves the rest of the plugin running.
+     *
+     * @param configManager The configuration to apply.
+     */
+    private void applyWatcherConfig(ConfigManager configManager) {
+        if (!configManager.isWatchFileEnabled()) {
+            configWatcher.stop();
+            return;
+        }
+        try {
+            configWatcher.start();
+        } catch (IOException e) {
+            getLogger().log(Level.WARNING, "Could not watch config.yml for changes", e);
+        }
+    }
+
+    /**
+     * Enables or disables metrics recording and starts or stops the Prometheus endpoint
+     * according to the configuration. A running endpoint is only restarted if its port has
+     * changed, and an endpoint that is not running is started, so a failed bind is retried on
+     * the next reload. A failure to bind the endpoint is logged and leaves the rest of the
+     * plugin running.
+     *
+     * @param configManager The configuration to apply.
+     */
+    private void applyMetricsConfig(ConfigManager configManager) {
+        metrics.setEnabled(configManager.isMetricsEnabled());
+        if (!configManager.isMetricsEnabled() || !configManager.isMetricsEndpointEnabled()) {
+            metricsEndpoint.stop();
+            return;
+        }
+        int port = configManager.getMetricsEndpointPort();
+        // Keep a running endpoint bound, so that reloads do not interrupt scraping
+        if (metricsEndpoint.isRunningOn(port)) {
+            return;
+        }
+        try {
+            metricsEndpoint.start(port);
+            getLogger().info("Serving metrics at http://127.0.0.1:" + port + "/metrics");
+        } catch (IOException e) {
+            getLogger().log(Level.WARNING, "Could not start the metrics endpoint on port " + port, e);
+        }
     }
 }
\ No newline at end of file
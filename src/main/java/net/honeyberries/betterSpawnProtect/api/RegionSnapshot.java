@@ -0,0 +1,55 @@
+package net.honeyberries.betterSpawnProtect.api;
+
+import net.honeyberries.betterSpawnProtect.region.ProtectedRegion;
+import net.honeyberries.betterSpawnProtect.region.RegionFlag;
+import org.bukkit.World;
+
+import java.util.List;
+
+/**
+ * A read-only, immutable view of all regions at one point in time, as returned by
+ * {@link SpawnProtectionService#getSnapshot()}. A view never changes after it was obtained,
+ * so several queries against one view always agree with each other, even if the regions are
+ * reloaded in the meantime. Views may be used from any thread.
+ */
+public interface RegionSnapshot {
+
+    /**
+     * Returns all regions of this view, starting with the main spawn region.
+     *
+     * @return An unmodifiable list of the regions.
+     */
+    List<ProtectedRegion> getRegions();
+
+    /**
+     * Returns the region with the given name. The main spawn region is named {@code spawn}.
+     *
+     * @param name The name of the region.
+     * @return The region, or {@code null} if this view has no region of that name.
+     */
+    ProtectedRegion getRegion(String name);
+
+    /**
+     * Checks if the given block position is within any region of this view.
+     *
+     * @param world The world of the block.
+     * @param x     The block X coordinate.
+     * @param y     The block Y coordinate.
+     * @param z     The block Z coordinate.
+     * @return {@code true} if the position is within a protected area, {@code false} otherwise.
+     */
+    boolean isProtected(World world, int x, int y, int z);
+
+    /**
+     * Checks if the given block position is within a region of this view that protects against
+     * the given category of actions.
+     *
+     * @param world The world of the block.
+     * @param x     The block X coordinate.
+     * @param y     The block Y coordinate.
+     * @param z     The block Z coordinate.
+     * @param flag  The category of the action.
+     * @return {@code true} if the action is denied at the position, {@code false} otherwise.
+     */
+    boolean isProtected(World world, int x, int y, int z, RegionFlag flag);
+}
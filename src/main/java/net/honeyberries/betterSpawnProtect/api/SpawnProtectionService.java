@@ -0,0 +1,96 @@
+package net.honeyberries.betterSpawnProtect.api;
+
+import net.honeyberries.betterSpawnProtect.region.RegionFlag;
+import net.honeyberries.betterSpawnProtect.util.CoordinateKeys;
+import org.bukkit.World;
+
+import java.util.BitSet;
+
+/**
+ * The public protection queries of BetterSpawnProtect, registered in Bukkit's
+ * {@link org.bukkit.plugin.ServicesManager} while the plugin is enabled:
+ * <pre>{@code
+ * SpawnProtectionService service = Bukkit.getServicesManager().load(SpawnProtectionService.class);
+ * }</pre>
+ * All queries take primitive block coordinates, so callers never need to create a
+ * {@link org.bukkit.Location}. They are lock-free and may be called from any thread, and
+ * every single call sees one consistent version of the regions.
+ * <p>
+ * Tools that check many blocks at once, such as schematic pastes, should use the batch
+ * queries. Positions are packed into {@code long}s with {@link #pack(int, int, int)}, and a
+ * batch that lies entirely inside or outside the regions is answered without testing any
+ * single position.
+ */
+public interface SpawnProtectionService {
+
+    /**
+     * Packs block coordinates for the batch queries. X and Z keep their lowest 26 bits and Y
+     * its lowest 12 bits, which covers every position within the world border at any world
+     * height. This is not the layout of Paper's {@code Block#getBlockKey()}.
+     *
+     * @param x The block X coordinate.
+     * @param y The block Y coordinate.
+     * @param z The block Z coordinate.
+     * @return The packed position.
+     */
+    static long pack(int x, int y, int z) {
+        return CoordinateKeys.blockKey(x, y, z);
+    }
+
+    /**
+     * Checks if the given block position is within any protected area.
+     *
+     * @param world The world of the block.
+     * @param x     The block X coordinate.
+     * @param y     The block Y coordinate.
+     * @param z     The block Z coordinate.
+     * @return {@code true} if the position is within a protected area, {@code false} otherwise.
+     */
+    boolean isProtected(World world, int x, int y, int z);
+
+    /**
+     * Checks if the given block position is within a region that protects against the given
+     * category of actions.
+     *
+     * @param world The world of the block.
+     * @param x     The block X coordinate.
+     * @param y     The block Y coordinate.
+     * @param z     The block Z coordinate.
+     * @param flag  The category of the action.
+     * @return {@code true} if the action is denied at the position, {@code false} otherwise.
+     */
+    boolean isProtected(World world, int x, int y, int z, RegionFlag flag);
+
+    /**
+     * Checks a batch of block positions in one world for being within any protected area.
+     *
+     * @param world     The world of the blocks.
+     * @param positions The positions, packed with {@link #pack(int, int, int)}.
+     * @param count     The number of positions to check, starting at index {@code 0}.
+     * @param result    Receives the results: bit {@code i} is set if and only if
+     *                  {@code positions[i]} is protected. Bits from {@code count} on are left untouched.
+     */
+    void isProtected(World world, long[] positions, int count, BitSet result);
+
+    /**
+     * Checks a batch of block positions in one world for being within a region that protects
+     * against the given category of actions.
+     *
+     * @param world     The world of the blocks.
+     * @param positions The positions, packed with {@link #pack(int, int, int)}.
+     * @param count     The number of positions to check, starting at index {@code 0}.
+     * @param flag      The category of the action.
+     * @param result    Receives the results: bit {@code i} is set if and only if the action
+     *                  is denied at {@code positions[i]}. Bits from {@code count} on are left untouched.
+     */
+    void isProtected(World world, long[] positions, int count, RegionFlag flag, BitSet result);
+
+    /**
+     * Returns a read-only view of all regions as they are now. The view stays consistent even
+     * if the regions change afterwards, so callers running several queries that must agree
+     * with each other can run them all against one view.
+     *
+     * @return The current region view.
+     */
+    RegionSnapshot getSnapshot();
+}
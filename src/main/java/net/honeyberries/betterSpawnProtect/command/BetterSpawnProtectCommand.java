@@ -10,6 +10,10 @@ import io.papermc.paper.command.brigadier.argument.ArgumentTypes;
 import io.papermc.paper.command.brigadier.argument.resolvers.BlockPositionResolver;
 import net.honeyberries.betterSpawnProtect.BetterSpawnProtect;
 import net.honeyberries.betterSpawnProtect.manager.ProtectionManager;
+import net.honeyberries.betterSpawnProtect.metrics.EventStats;
+import net.honeyberries.betterSpawnProtect.metrics.LatencyHistogram;
+import net.honeyberries.betterSpawnProtect.metrics.Metrics;
+import net.honeyberries.betterSpawnProtect.task.OutlineRenderer;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Location;
@@ -17,27 +21,39 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import io.papermc.paper.math.BlockPosition;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Manages the registration and execution of commands for the BetterSpawnProtect plugin.
  * This class provides commands for viewing protection information, setting the center
- * and radius of the protected area, and reloading the plugin's configuration. It is
+ * and radius of the protected area, showing region outlines and performance statistics, and reloading the plugin's configuration. It is
  * designed to be used with Paper's Brigadier command system.
  */
 public class BetterSpawnProtectCommand {
 
     private final BetterSpawnProtect plugin;
     private final ProtectionManager protectionManager;
+    private final OutlineRenderer outlineRenderer;
+    private final Metrics metrics;
 
     /**
      * Constructs a new {@code BetterSpawnProtectCommand} with a reference to the main plugin
-     * instance and the {@link ProtectionManager}.
+     * instance, the {@link ProtectionManager}, the {@link OutlineRenderer} and the {@link Metrics}.
      *
      * @param plugin            The main instance of the BetterSpawnProtect plugin.
      * @param protectionManager The manager for handling protection logic.
+     * @param outlineRenderer   The renderer toggled by the "show" subcommand.
+     * @param metrics           The metrics shown by the "stats" subcommand.
      */
-    public BetterSpawnProtectCommand(BetterSpawnProtect plugin, ProtectionManager protectionManager) {
+    public BetterSpawnProtectCommand(BetterSpawnProtect plugin, ProtectionManager protectionManager,
+                                     OutlineRenderer outlineRenderer, Metrics metrics) {
         this.plugin = plugin;
         this.protectionManager = protectionManager;
+        this.outlineRenderer = outlineRenderer;
+        this.metrics = metrics;
     }
 
     /**
@@ -53,6 +69,9 @@ public class BetterSpawnProtectCommand {
                 .then(info())
                 .then(setCenter())
                 .then(setRadius())
+                .then(show())
+                .then(stats())
+                .then(store())
                 .then(reload())
                 .executes(ctx -> {
                     sendHelp(ctx.getSource().getSender());
@@ -89,6 +108,7 @@ public class BetterSpawnProtectCommand {
                 .executes(ctx -> {
                     if (ctx.getSource().getSender() instanceof Player player) {
                         protectionManager.setCenter(player.getLocation());
+                        plugin.refreshGamemodes();
                         ctx.getSource().getSender().sendMessage(
                                 Component.text("Spawn protection center set to your location. ", NamedTextColor.GREEN)
                                         .append(Component.text(protectionManager.getCenterSummary()))
@@ -104,6 +124,7 @@ public class BetterSpawnProtectCommand {
                             BlockPosition pos = ctx.getArgument("position", BlockPositionResolver.class).resolve(ctx.getSource());
                             Location loc = new Location(protectionManager.getWorld(), pos.x(), pos.y(), pos.z());
                             protectionManager.setCenter(loc);
+                            plugin.refreshGamemodes();
                             ctx.getSource().getSender().sendMessage(
                                     Component.text("Spawn protection center set. ", NamedTextColor.GREEN)
                                             .append(Component.text(protectionManager.getCenterSummary()))
@@ -124,6 +145,7 @@ public class BetterSpawnProtectCommand {
                         .executes(ctx -> {
                             double radius = ctx.getArgument("radius", Double.class);
                             protectionManager.setRadius(radius);
+                            plugin.refreshGamemodes();
                             ctx.getSource().getSender().sendMessage(
                                     Component.text("Spawn protection radius set to " + radius, NamedTextColor.GREEN)
                             );
@@ -131,16 +153,156 @@ public class BetterSpawnProtectCommand {
                         }));
     }
 
+    /**
+     * Creates the "show" subcommand, which toggles the particle outlines of the protected
+     * regions for the executing player.
+     *
+     * @return A {@link LiteralArgumentBuilder} for the "show" subcommand.
+     */
+    private LiteralArgumentBuilder<CommandSourceStack> show() {
+        return LiteralArgumentBuilder.<CommandSourceStack>literal("show")
+                .executes(ctx -> {
+                    if (!(ctx.getSource().getSender() instanceof Player player)) {
+                        ctx.getSource().getSender().sendMessage(Component.text("Only players can see region outlines.", NamedTextColor.RED));
+                        return Command.SINGLE_SUCCESS;
+                    }
+                    if (outlineRenderer.toggle(player)) {
+                        player.sendMessage(Component.text("Showing region outlines. Run /bsp show again to hide them.", NamedTextColor.GREEN));
+                    } else {
+                        player.sendMessage(Component.text("Region outlines hidden.", NamedTextColor.GREEN));
+                    }
+                    return Command.SINGLE_SUCCESS;
+                });
+    }
+
+    /**
+     * Creates the "stats" subcommand, which shows the checks, denials, bypasses and latency of
+     * every instrumented event, most expensive first. "stats reset" clears the statistics.
+     *
+     * @return A {@link LiteralArgumentBuilder} for the "stats" subcommand.
+     */
+    private LiteralArgumentBuilder<CommandSourceStack> stats() {
+        return LiteralArgumentBuilder.<CommandSourceStack>literal("stats")
+                .executes(ctx -> {
+                    sendStats(ctx.getSource().getSender());
+                    return Command.SINGLE_SUCCESS;
+                })
+                .then(LiteralArgumentBuilder.<CommandSourceStack>literal("reset")
+                        .executes(ctx -> {
+                            metrics.reset();
+                            ctx.getSource().getSender().sendMessage(Component.text("BetterSpawnProtect statistics reset.", NamedTextColor.GREEN));
+                            return Command.SINGLE_SUCCESS;
+                        }));
+    }
+
+    /**
+     * Creates the "store" subcommand. "store import" writes the regions section of config.yml
+     * into the binary region store, and "store export" writes the active regions to
+     * {@code regions-export.yml}. Both run in the background, since the files may be large.
+     *
+     * @return A {@link LiteralArgumentBuilder} for the "store" subcommand.
+     */
+    private LiteralArgumentBuilder<CommandSourceStack> store() {
+        return LiteralArgumentBuilder.<CommandSourceStack>literal("store")
+                .then(LiteralArgumentBuilder.<CommandSourceStack>literal("import")
+                        .executes(ctx -> {
+                            CommandSender sender = ctx.getSource().getSender();
+                            plugin.getServer().getAsyncScheduler().runNow(plugin, task -> {
+                                try {
+                                    int count = protectionManager.importRegionsFromConfig();
+                                    sender.sendMessage(Component.text("Imported " + count + " regions into regions.bin. "
+                                            + "Enable storage.binary-regions and reload to use them.", NamedTextColor.GREEN));
+                                } catch (IOException | IllegalArgumentException e) {
+                                    sender.sendMessage(Component.text("Could not write regions.bin: " + e.getMessage(), NamedTextColor.RED));
+                                }
+                            });
+                            return Command.SINGLE_SUCCESS;
+                        }))
+                .then(LiteralArgumentBuilder.<CommandSourceStack>literal("export")
+                        .executes(ctx -> {
+                            CommandSender sender = ctx.getSource().getSender();
+                            File file = new File(plugin.getDataFolder(), "regions-export.yml");
+                            plugin.getServer().getAsyncScheduler().runNow(plugin, task -> {
+                                try {
+                                    int count = protectionManager.exportRegions(file);
+                                    sender.sendMessage(Component.text("Exported " + count + " regions to " + file.getName() + ".", NamedTextColor.GREEN));
+                                } catch (IOException e) {
+                                    sender.sendMessage(Component.text("Could not write " + file.getName() + ": " + e.getMessage(), NamedTextColor.RED));
+                                }
+                            });
+                            return Command.SINGLE_SUCCESS;
+                        }));
+    }
+
+    /**
+     * Sends the recorded statistics to the command sender.
+     *
+     * @param sender The {@link CommandSender} to receive the statistics.
+     */
+    private void sendStats(CommandSender sender) {
+        if (!metrics.isEnabled()) {
+            sender.sendMessage(Component.text("Metrics are disabled. Set metrics.enabled to true in config.yml and reload.", NamedTextColor.RED));
+            return;
+        }
+
+        long minutes = TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis() - metrics.getResetAtMillis());
+        sender.sendMessage(Component.text("------------ BetterSpawnProtect Stats (" + minutes + " min) ------------", NamedTextColor.GOLD));
+        List<EventStats> active = metrics.getActive();
+        if (active.isEmpty()) {
+            sender.sendMessage(Component.text("No events recorded yet.", NamedTextColor.AQUA));
+        }
+        for (EventStats eventStats : active) {
+            LatencyHistogram latency = eventStats.getLatency();
+            long checks = eventStats.getChecks();
+            sender.sendMessage(Component.text(eventStats.getMetric().label(), NamedTextColor.GREEN)
+                    .append(Component.text(" " + checks + " checks, " + eventStats.getDenied() + " denied, "
+                            + eventStats.getBypassed() + " bypassed, avg " + formatNanos(latency.sumNanos() / Math.max(1, latency.count()))
+                            + ", p99 <= " + formatNanos(latency.quantileUpperBoundNanos(0.99))
+                            + ", total " + formatNanos(latency.sumNanos()), NamedTextColor.AQUA)));
+        }
+        sender.sendMessage(Component.text("----------------------------------------------------", NamedTextColor.GOLD));
+    }
+
+    /**
+     * Formats a duration for display, using the largest fitting unit.
+     *
+     * @param nanos The duration in nanoseconds, or {@link Long#MAX_VALUE} for an unbounded one.
+     * @return The formatted duration.
+     */
+    private static String formatNanos(long nanos) {
+        if (nanos == Long.MAX_VALUE) {
+            return "inf";
+        }
+        if (nanos < 1_000L) {
+            return nanos + "ns";
+        }
+        if (nanos < 1_000_000L) {
+            return String.format("%.1fus", nanos / 1_000.0);
+        }
+        if (nanos < 1_000_000_000L) {
+            return String.format("%.1fms", nanos / 1_000_000.0);
+        }
+        return String.format("%.1fs", nanos / 1_000_000_000.0);
+    }
+
     /**
      * Creates the "reload" subcommand, which reloads the plugin's configuration from disk.
+     * The reload runs in the background, and the sender is notified once it has completed.
      *
      * @return A {@link LiteralArgumentBuilder} for the "reload" subcommand.
      */
     private LiteralArgumentBuilder<CommandSourceStack> reload() {
         return LiteralArgumentBuilder.<CommandSourceStack>literal("reload")
                 .executes(ctx -> {
-                    plugin.reloadAll();
-                    ctx.getSource().getSender().sendMessage(Component.text("BetterSpawnProtect reloaded.", NamedTextColor.GREEN));
+                    CommandSender sender = ctx.getSource().getSender();
+                    plugin.reloadAll().whenComplete((ignored, error) -> {
+                        if (error == null) {
+                            sender.sendMessage(Component.text("BetterSpawnProtect reloaded.", NamedTextColor.GREEN));
+                        } else {
+                            sender.sendMessage(Component.text("Could not reload config.yml: " + error.getMessage()
+                                    + ". See the console for details.", NamedTextColor.RED));
+                        }
+                    });
                     return Command.SINGLE_SUCCESS;
                 });
     }
@@ -159,6 +321,12 @@ public class BetterSpawnProtectCommand {
                 .append(Component.text(" - Set center (coords or your location)", NamedTextColor.AQUA)));
         sender.sendMessage(Component.text("/bsp setradius <r>", NamedTextColor.GREEN)
                 .append(Component.text(" - Set radius", NamedTextColor.AQUA)));
+        sender.sendMessage(Component.text("/bsp show", NamedTextColor.GREEN)
+                .append(Component.text(" - Toggle region outlines", NamedTextColor.AQUA)));
+        sender.sendMessage(Component.text("/bsp stats [reset]", NamedTextColor.GREEN)
+                .append(Component.text(" - Show or reset performance statistics", NamedTextColor.AQUA)));
+        sender.sendMessage(Component.text("/bsp store <import|export>", NamedTextColor.GREEN)
+                .append(Component.text(" - Convert regions between config.yml and regions.bin", NamedTextColor.AQUA)));
         sender.sendMessage(Component.text("/bsp reload", NamedTextColor.GREEN)
                 .append(Component.text(" - Reload config", NamedTextColor.AQUA)));
         sender.sendMessage(Component.text("----------------------------------------------------", NamedTextColor.GOLD));
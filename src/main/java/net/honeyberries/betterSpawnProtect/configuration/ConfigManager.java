@@ -1,13 +1,34 @@
 package net.honeyberries.betterSpawnProtect.configuration;
 
+import net.honeyberries.betterSpawnProtect.region.ProtectedRegion;
+import net.honeyberries.betterSpawnProtect.region.ProtectionSnapshot;
+import net.honeyberries.betterSpawnProtect.region.RegionFlag;
+import net.honeyberries.betterSpawnProtect.region.RegionShape;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
 import org.bukkit.plugin.Plugin;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 
 /**
@@ -15,13 +36,43 @@ import java.util.logging.Level;
  * singleton pattern to ensure that there is only one instance of the configuration manager
  * throughout the plugin's lifecycle. It handles loading, saving, and providing access to
  * all configuration values, as well as creating a default configuration if one does not exist.
+ * <p>
+ * Changes made through the setters are persisted write-behind: rapid edits are coalesced into
+ * a single write, which is serialized and written off the calling thread. Every write goes to
+ * a temporary file that is then atomically renamed over {@code config.yml}, so a crash never
+ * leaves a half-written file behind.
+ * <p>
+ * Reloads are split into {@link #parseFromDisk()}, which may run on any thread, and
+ * {@link #apply(YamlConfiguration)}, which swaps the parsed configuration in atomically.
  */
 public class ConfigManager {
 
+    /**
+     * The delay used to coalesce rapid edits into a single write, in milliseconds.
+     */
+    private static final long SAVE_DELAY_MS = 500L;
+
     private static ConfigManager instance;
     private final Plugin plugin;
     private final File configFile;
-    private YamlConfiguration config;
+    private volatile YamlConfiguration config;
+
+    /**
+     * Whether a write-behind save is already scheduled.
+     */
+    private final AtomicBoolean saveScheduled = new AtomicBoolean();
+
+    /**
+     * Serializes writes to disk, so that a newer configuration can never be overwritten by an
+     * older one.
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * The contents of {@code config.yml} as last read or written by the plugin. This tells
+     * edits made by other tools apart from the plugin's own saves.
+     */
+    private volatile String knownContents;
 
     /**
      * Private constructor to enforce the singleton pattern. Initializes the configuration
@@ -69,6 +120,11 @@ public class ConfigManager {
             createDefaultConfig();
         }
         config = YamlConfiguration.loadConfiguration(configFile);
+        try {
+            knownContents = Files.readString(configFile.toPath(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            knownContents = null;
+        }
     }
 
     /**
@@ -84,32 +140,180 @@ public class ConfigManager {
         config.set("protection.center.y", 64.0);
         config.set("protection.center.z", 0.5);
         config.set("protection.radius", 32.0);
+        config.createSection("regions");
+        config.createSection("spawn-control");
+        config.set("physics.fluid-flow", true);
+        config.set("physics.spread", true);
+        config.set("physics.form", true);
+        config.set("physics.fade", true);
+        config.set("physics.burn", true);
+        config.set("physics.container-transfer", true);
+        config.set("messages.cooldown-ms", 4000L);
+        config.set("show.particles-per-tick", 40);
+        config.set("gamemode.staggered.enabled", false);
+        config.set("gamemode.staggered.buckets", 100);
+        config.set("storage.binary-regions", false);
+        config.set("reload.watch-file", false);
+        config.set("metrics.enabled", false);
+        config.set("metrics.endpoint.enabled", false);
+        config.set("metrics.endpoint.port", 9464);
 
         config.setComments("protection.world", Collections.singletonList("The world where spawn protection is active."));
         config.setComments("protection.center", Collections.singletonList("The center coordinates of the protected area."));
-        config.setComments("protection.radius", Collections.singletonList("The radius of the protected area in blocks."));
+        config.setComments("protection.radius", List.of(
+                "The radius of the protected area in blocks.",
+                "Add min-y and max-y to limit the protected height; by default the whole column is protected.",
+                "Add an allow list of flags, such as [interact, entity-damage], to permit those actions inside the area."));
+        config.setComments("regions", List.of(
+                "Additional named protected areas, each with its own world and shape.",
+                "Shapes: cylinder (center, radius, min-y, max-y), sphere (center, radius),",
+                "cuboid (min and max block corners) and polygon (points as [x, z] pairs, min-y, max-y).",
+                "Each region may have an allow list of flags, like the protection section."));
+        config.setComments("spawn-control", List.of(
+                "Creature spawns to block inside regions, by region name ('spawn' is the main protection).",
+                "Each region lists spawn reasons, such as natural, spawner or reinforcements, or all, for",
+                "hostile and for passive creatures, e.g. spawn: {hostile: [natural, reinforcements]}."));
+        config.setComments("physics", List.of(
+                "Which natural block changes are blocked inside protected regions, and whether hoppers may move",
+                "or pick up items across the border of regions that protect against interact (container-transfer).",
+                "Categories that are turned off are not listened to at all, which saves work on busy servers."));
+        config.setComments("messages.cooldown-ms", Collections.singletonList("The minimum time in milliseconds between two denial messages to the same player."));
+        config.setComments("show.particles-per-tick", List.of(
+                "The maximum number of particles /bsp show sends to one player per tick.",
+                "Outlines with more points in range are drawn over several ticks."));
+        config.setComments("gamemode.staggered", List.of(
+                "Whether each player gets their own repeating gamemode check instead of one sweep over all players.",
+                "Players are spread over the given number of ticks, so each tick only checks a share of them",
+                "and every player is checked once per that many ticks."));
+        config.setComments("storage.binary-regions", List.of(
+                "Whether to load the additional regions from the binary regions.bin instead of the regions section.",
+                "Use /bsp store import and /bsp store export to convert between the two."));
+        config.setComments("reload.watch-file", Collections.singletonList("Whether to reload automatically when config.yml is changed on disk by another program."));
+        config.setComments("metrics.enabled", Collections.singletonList("Whether to record per-event check counts and latencies, shown by /bsp stats."));
+        config.setComments("metrics.endpoint", Collections.singletonList("An optional Prometheus endpoint at http://127.0.0.1:<port>/metrics, only reachable from this machine."));
 
         saveConfig();
     }
 
     /**
-     * Saves the current configuration to the {@code config.yml} file. If an error occurs
-     * during saving, it is logged to the console.
+     * Saves the current configuration to the {@code config.yml} file immediately, on the
+     * calling thread. Any pending write-behind save is covered by this write. If an error
+     * occurs during saving, it is logged to the console.
      */
     public void saveConfig() {
+        saveScheduled.set(false);
+        synchronized (writeLock) {
+            String contents;
+            synchronized (this) {
+                contents = config.saveToString();
+            }
+            try {
+                writeAtomically(contents);
+                knownContents = contents;
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not save config.yml", e);
+            }
+        }
+    }
+
+    /**
+     * Writes a pending write-behind save immediately, on the calling thread. Reloads call this
+     * before reading the file, so that changes made by commands shortly before a reload are on
+     * disk and read back, instead of being replaced in memory by the older file and then written
+     * over it. Without a pending save this does nothing.
+     */
+    public void flushPendingSave() {
+        if (saveScheduled.getAndSet(false)) {
+            saveConfig();
+        }
+    }
+
+    /**
+     * Schedules a write-behind save. Calls made while a save is already pending are
+     * coalesced into that save. If the plugin is not enabled, and therefore cannot schedule
+     * tasks, the configuration is saved immediately instead.
+     */
+    private void requestSave() {
+        if (!plugin.isEnabled()) {
+            saveConfig();
+            return;
+        }
+        if (saveScheduled.compareAndSet(false, true)) {
+            plugin.getServer().getAsyncScheduler().runDelayed(plugin, task -> {
+                if (saveScheduled.get()) {
+                    saveConfig();
+                }
+            }, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes the given contents to a temporary file next to {@code config.yml} and renames it
+     * over the configuration file, atomically where the file system supports it.
+     *
+     * @param contents The serialized configuration.
+     * @throws IOException If the file could not be written or moved.
+     */
+    private void writeAtomically(String contents) throws IOException {
+        Path target = configFile.toPath();
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(configFile.getName() + ".tmp");
+        Files.writeString(temp, contents, StandardCharsets.UTF_8);
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads and parses {@code config.yml} without applying it. The active configuration is not
+     * touched, so this may be called from any thread, and a file that fails to parse leaves the
+     * plugin running on its current configuration.
+     *
+     * @return The parsed configuration, to be passed to {@link #apply(YamlConfiguration)}.
+     * @throws IOException                   If the file could not be read.
+     * @throws InvalidConfigurationException If the file is not valid YAML.
+     */
+    public YamlConfiguration parseFromDisk() throws IOException, InvalidConfigurationException {
+        String contents = Files.readString(configFile.toPath(), StandardCharsets.UTF_8);
+        YamlConfiguration parsed = new YamlConfiguration();
+        parsed.loadFromString(contents);
+        knownContents = contents;
+        return parsed;
+    }
+
+    /**
+     * Atomically replaces the active configuration with a parsed one. Readers see either the
+     * old or the new configuration, never a mix of both.
+     *
+     * @param parsed The configuration returned by {@link #parseFromDisk()}.
+     */
+    public synchronized void apply(YamlConfiguration parsed) {
+        config = parsed;
+    }
+
+    /**
+     * Checks whether {@code config.yml} differs from what the plugin last read or wrote, which
+     * means it was edited by something other than the plugin.
+     *
+     * @return {@code true} if the file has changed, {@code false} if it is unchanged or cannot be read.
+     */
+    public boolean isChangedOnDisk() {
         try {
-            config.save(configFile);
+            return !Files.readString(configFile.toPath(), StandardCharsets.UTF_8).equals(knownContents);
         } catch (IOException e) {
-            plugin.getLogger().log(Level.SEVERE, "Could not save config.yml", e);
+            return false;
         }
     }
 
     /**
-     * Reloads the configuration from the {@code config.yml} file. This is useful for
-     * applying changes without restarting the server.
+     * Returns the {@code config.yml} file.
+     *
+     * @return The configuration file.
      */
-    public void reloadConfig() {
-        config = YamlConfiguration.loadConfiguration(configFile);
+    public File getConfigFile() {
+        return configFile;
     }
 
     /**
@@ -167,36 +371,373 @@ public class ConfigManager {
     }
 
     /**
-     * Sets the protected world in the configuration and saves the changes.
+     * Retrieves the lowest protected block Y of the main spawn region.
+     *
+     * @return The lowest protected block Y, or {@link Integer#MIN_VALUE} if there is no limit.
+     */
+    public int getMinBlockY() {
+        return config.contains("protection.min-y") ? config.getInt("protection.min-y") : Integer.MIN_VALUE;
+    }
+
+    /**
+     * Retrieves the highest protected block Y of the main spawn region.
+     *
+     * @return The highest protected block Y, or {@link Integer#MAX_VALUE} if there is no limit.
+     */
+    public int getMaxBlockY() {
+        return config.contains("protection.max-y") ? config.getInt("protection.max-y") : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Retrieves the flags of the main spawn region, which protects against every category
+     * except those in {@code protection.allow}. An invalid allow list is logged and ignored,
+     * so that a typo never opens up the spawn.
+     *
+     * @return The mask of the {@link RegionFlag}s the spawn region protects against.
+     */
+    public int getSpawnFlags() {
+        try {
+            return readFlags(config.getConfigurationSection("protection"));
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().log(Level.WARNING, "Ignoring protection.allow in config.yml: " + e.getMessage());
+            return RegionFlag.ALL;
+        }
+    }
+
+    /**
+     * Retrieves the cooldown between two denial messages sent to the same player.
+     *
+     * @return The message cooldown in milliseconds.
+     */
+    public long getMessageCooldownMillis() {
+        return config.getLong("messages.cooldown-ms", 4000L);
+    }
+
+    /**
+     * Retrieves the maximum number of particles that {@code /bsp show} sends to one player per tick.
+     *
+     * @return The particle budget per player and tick.
+     */
+    public int getShowParticlesPerTick() {
+        return config.getInt("show.particles-per-tick", 40);
+    }
+
+    /**
+     * Retrieves whether the gamemode sweep gives every player their own repeating task, spread
+     * over tick buckets, instead of sweeping all players at once.
+     *
+     * @return {@code true} if the staggered sweep is used, {@code false} otherwise.
+     */
+    public boolean isStaggeredSweepEnabled() {
+        return config.getBoolean("gamemode.staggered.enabled", false);
+    }
+
+    /**
+     * Retrieves the number of tick buckets of the staggered gamemode sweep, which is also the
+     * number of ticks between two checks of the same player.
+     *
+     * @return The number of buckets, at least one.
+     */
+    public int getSweepBuckets() {
+        return Math.max(1, config.getInt("gamemode.staggered.buckets", 100));
+    }
+
+    /**
+     * Retrieves whether the given category of natural block changes is blocked inside
+     * protected regions. Categories missing from the configuration are protected.
+     *
+     * @param category The key of the category below {@code physics}, such as {@code fluid-flow}.
+     * @return {@code true} if the category is protected, {@code false} otherwise.
+     */
+    public boolean isPhysicsProtected(String category) {
+        return config.getBoolean("physics." + category, true);
+    }
+
+    /**
+     * Retrieves whether the additional regions are loaded from the binary region store instead
+     * of the {@code regions} section.
+     *
+     * @return {@code true} if the binary store is used, {@code false} otherwise.
+     */
+    public boolean isBinaryRegionStoreEnabled() {
+        return config.getBoolean("storage.binary-regions", false);
+    }
+
+    /**
+     * Returns the binary region store file, {@code regions.bin} in the plugin's data folder.
+     *
+     * @return The region store file.
+     */
+    public File getRegionStoreFile() {
+        return new File(plugin.getDataFolder(), "regions.bin");
+    }
+
+    /**
+     * Writes the given regions to a YAML file, in the format of the {@code regions} section, so
+     * that regions kept in the binary store can be inspected and edited by hand.
+     *
+     * @param regions The regions to export.
+     * @param file    The file to write.
+     * @throws IOException If the file could not be written.
+     */
+    public void exportRegions(List<ProtectedRegion> regions, File file) throws IOException {
+        YamlConfiguration export = new YamlConfiguration();
+        for (ProtectedRegion region : regions) {
+            String path = "regions." + region.getName();
+            export.set(path + ".world", region.getWorldName());
+            region.getShape().toConfig().forEach((key, value) -> export.set(path + "." + key, value));
+            if (region.getFlags() != RegionFlag.ALL) {
+                List<String> allowed = new ArrayList<>();
+                for (RegionFlag flag : RegionFlag.values()) {
+                    if (!region.protects(flag)) {
+                        allowed.add(flag.key());
+                    }
+                }
+                export.set(path + ".allow", allowed);
+            }
+        }
+        export.save(file);
+    }
+
+    /**
+     * Retrieves whether {@code config.yml} should be reloaded automatically when it changes on disk.
+     *
+     * @return {@code true} if the file is watched, {@code false} otherwise.
+     */
+    public boolean isWatchFileEnabled() {
+        return config.getBoolean("reload.watch-file", false);
+    }
+
+    /**
+     * Retrieves whether per-event metrics should be recorded.
+     *
+     * @return {@code true} if metrics are enabled, {@code false} otherwise.
+     */
+    public boolean isMetricsEnabled() {
+        return config.getBoolean("metrics.enabled", false);
+    }
+
+    /**
+     * Retrieves whether the loopback Prometheus endpoint should be started.
+     *
+     * @return {@code true} if the endpoint is enabled, {@code false} otherwise.
+     */
+    public boolean isMetricsEndpointEnabled() {
+        return config.getBoolean("metrics.endpoint.enabled", false);
+    }
+
+    /**
+     * Retrieves the port of the loopback Prometheus endpoint.
+     *
+     * @return The TCP port.
+     */
+    public int getMetricsEndpointPort() {
+        return config.getInt("metrics.endpoint.port", 9464);
+    }
+
+    /**
+     * Retrieves the additional named regions from the {@code regions} section of the
+     * configuration. The {@code shape} key selects the geometry of each region:
+     * <ul>
+     *     <li>{@code cylinder} (the default): {@code center}, {@code radius} and optional
+     *     {@code min-y} and {@code max-y}, like the main {@code protection} section.</li>
+     *     <li>{@code sphere}: {@code center} and {@code radius}.</li>
+     *     <li>{@code cuboid}: the block corners {@code min} and {@code max}, each with
+     *     {@code x} and {@code z} and an optional {@code y}.</li>
+     *     <li>{@code polygon}: a list of {@code [x, z]} {@code points} and optional
+     *     {@code min-y} and {@code max-y}.</li>
+     * </ul>
+     * Every region protects against all {@link RegionFlag}s except those listed in its optional
+     * {@code allow} list.
+     * A missing world falls back to the main protection's world, and a missing center to
+     * (0.5, 64.0, 0.5). Regions that cannot be read are logged and skipped.
+     *
+     * @return A list of the configured additional regions, in configuration order.
+     */
+    public List<ProtectedRegion> getAdditionalRegions() {
+        List<ProtectedRegion> regions = new ArrayList<>();
+        ConfigurationSection section = config.getConfigurationSection("regions");
+        if (section == null) {
+            return regions;
+        }
+
+        for (String name : section.getKeys(false)) {
+            ConfigurationSection regionSection = section.getConfigurationSection(name);
+            if (regionSection == null) {
+                plugin.getLogger().log(Level.WARNING, "Ignoring malformed region '" + name + "' in config.yml");
+                continue;
+            }
+            try {
+                regions.add(new ProtectedRegion(
+                        name,
+                        regionSection.getString("world", getProtectionWorldName()),
+                        readShape(regionSection),
+                        readFlags(regionSection)
+                ));
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().log(Level.WARNING, "Ignoring region '" + name + "' in config.yml: " + e.getMessage());
+            }
+        }
+        return regions;
+    }
+
+    /**
+     * Retrieves the spawn-control rules from the {@code spawn-control} section. Every entry
+     * names a region and lists, under {@code hostile} and {@code passive}, the spawn reasons
+     * to deny for creatures of that category; {@code all} denies every reason. Unknown
+     * reasons are logged and skipped.
+     *
+     * @return The spawn keys denied by each region, by region name, as built by
+     * {@link ProtectionSnapshot#spawnKey(boolean, String)}.
+     */
+    public Map<String, Set<String>> getSpawnRules() {
+        Map<String, Set<String>> rules = new LinkedHashMap<>();
+        ConfigurationSection section = config.getConfigurationSection("spawn-control");
+        if (section == null) {
+            return rules;
+        }
+
+        for (String name : section.getKeys(false)) {
+            ConfigurationSection regionSection = section.getConfigurationSection(name);
+            if (regionSection == null) {
+                plugin.getLogger().log(Level.WARNING, "Ignoring malformed spawn-control entry '" + name + "' in config.yml");
+                continue;
+            }
+            Set<String> keys = new HashSet<>();
+            for (boolean hostile : new boolean[]{true, false}) {
+                String category = hostile ? "hostile" : "passive";
+                for (String reason : regionSection.getStringList(category)) {
+                    String normalized = reason.trim().toLowerCase(Locale.ROOT);
+                    if (normalized.equals("all")) {
+                        for (SpawnReason value : SpawnReason.values()) {
+                            keys.add(ProtectionSnapshot.spawnKey(hostile, value.name().toLowerCase(Locale.ROOT)));
+                        }
+                        continue;
+                    }
+                    try {
+                        SpawnReason.valueOf(normalized.toUpperCase(Locale.ROOT));
+                        keys.add(ProtectionSnapshot.spawnKey(hostile, normalized));
+                    } catch (IllegalArgumentException e) {
+                        plugin.getLogger().log(Level.WARNING, "Ignoring unknown spawn reason '" + reason + "' for region '" + name + "' in config.yml");
+                    }
+                }
+            }
+            if (!keys.isEmpty()) {
+                rules.put(name, keys);
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Reads the {@code allow} list of a region section into the mask of the flags the region
+     * protects against.
+     *
+     * @param section The configuration section of the region, which may be {@code null}.
+     * @return The mask of the protected {@link RegionFlag}s.
+     * @throws IllegalArgumentException If the list names an unknown flag.
+     */
+    private static int readFlags(ConfigurationSection section) {
+        if (section == null) {
+            return RegionFlag.ALL;
+        }
+        int flags = RegionFlag.ALL;
+        for (String key : section.getStringList("allow")) {
+            flags &= ~RegionFlag.fromKey(key).bit();
+        }
+        return flags;
+    }
+
+    /**
+     * Reads the shape of a region section.
+     *
+     * @param section The configuration section of the region.
+     * @return The shape of the region.
+     * @throws IllegalArgumentException If the shape type is unknown or its values are invalid.
+     */
+    private RegionShape readShape(ConfigurationSection section) {
+        int minY = section.contains("min-y") ? section.getInt("min-y") : Integer.MIN_VALUE;
+        int maxY = section.contains("max-y") ? section.getInt("max-y") : Integer.MAX_VALUE;
+        String shape = section.getString("shape", "cylinder").toLowerCase(Locale.ROOT);
+        return switch (shape) {
+            case "cylinder" -> RegionShape.cylinder(
+                    section.getDouble("center.x", 0.5),
+                    section.getDouble("center.y", 64.0),
+                    section.getDouble("center.z", 0.5),
+                    section.getDouble("radius", 0.0),
+                    minY, maxY);
+            case "sphere" -> RegionShape.sphere(
+                    section.getDouble("center.x", 0.5),
+                    section.getDouble("center.y", 64.0),
+                    section.getDouble("center.z", 0.5),
+                    section.getDouble("radius", 0.0));
+            case "cuboid" -> {
+                if (!section.contains("min.x") || !section.contains("min.z") || !section.contains("max.x") || !section.contains("max.z")) {
+                    throw new IllegalArgumentException("a cuboid needs min.x, min.z, max.x and max.z");
+                }
+                yield RegionShape.cuboid(
+                        section.getInt("min.x"),
+                        section.contains("min.y") ? section.getInt("min.y") : Integer.MIN_VALUE,
+                        section.getInt("min.z"),
+                        section.getInt("max.x"),
+                        section.contains("max.y") ? section.getInt("max.y") : Integer.MAX_VALUE,
+                        section.getInt("max.z"));
+            }
+            case "polygon" -> {
+                List<?> points = section.getList("points", Collections.emptyList());
+                double[] xs = new double[points.size()];
+                double[] zs = new double[points.size()];
+                for (int i = 0; i < points.size(); i++) {
+                    if (!(points.get(i) instanceof List<?> point) || point.size() != 2
+                            || !(point.get(0) instanceof Number x) || !(point.get(1) instanceof Number z)) {
+                        throw new IllegalArgumentException("polygon points must be [x, z] pairs");
+                    }
+                    xs[i] = x.doubleValue();
+                    zs[i] = z.doubleValue();
+                }
+                yield RegionShape.polygon(xs, zs, minY, maxY);
+            }
+            default -> throw new IllegalArgumentException("unknown shape '" + shape + "'");
+        };
+    }
+
+    /**
+     * Sets the protected world in the configuration and schedules the changes to be saved.
      *
      * @param world The {@link World} to set as protected.
      */
     public void setProtectionWorld(World world) {
-        config.set("protection.world", world.getName());
-        saveConfig();
+        synchronized (this) {
+            config.set("protection.world", world.getName());
+        }
+        requestSave();
     }
 
     /**
-     * Sets the center of the protected area in the configuration and saves the changes.
+     * Sets the center of the protected area in the configuration and schedules the changes to be saved.
      *
      * @param x The X coordinate of the center.
      * @param y The Y coordinate of the center.
      * @param z The Z coordinate of the center.
      */
     public void setCenter(double x, double y, double z) {
-        config.set("protection.center.x", x);
-        config.set("protection.center.y", y);
-        config.set("protection.center.z", z);
-        saveConfig();
+        synchronized (this) {
+            config.set("protection.center.x", x);
+            config.set("protection.center.y", y);
+            config.set("protection.center.z", z);
+        }
+        requestSave();
     }
 
     /**
-     * Sets the radius of the protected area in the configuration and saves the changes.
+     * Sets the radius of the protected area in the configuration and schedules the changes to be saved.
      *
      * @param radius The radius to set.
      */
     public void setRadius(double radius) {
-        config.set("protection.radius", radius);
-        saveConfig();
+        synchronized (this) {
+            config.set("protection.radius", radius);
+        }
+        requestSave();
     }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package net.honeyberries.betterSpawnProtect.configuration;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches a single file for changes on disk and invokes a callback once the file has settled.
+ * Editors and deployment tools often write a file in several steps, so a burst of events is
+ * debounced into one callback that runs after {@value #DEBOUNCE_MS} ms without further changes.
+ * <p>
+ * The watcher runs on its own daemon thread, which blocks on the {@link WatchService} and
+ * therefore costs nothing while the file is unchanged. The callback runs on that thread as
+ * well and should hand any real work off to a scheduler.
+ */
+public final class ConfigWatcher {
+
+    /**
+     * The time without further events after which a change is reported, in milliseconds.
+     */
+    private static final long DEBOUNCE_MS = 500L;
+
+    private final Path file;
+    private final Runnable onChange;
+    private final Logger logger;
+    private WatchService watchService;
+    private Thread thread;
+
+    /**
+     * Constructs a new {@code ConfigWatcher} without starting it.
+     *
+     * @param file     The file to watch.
+     * @param onChange The callback to run when the file has changed.
+     * @param logger   The logger to report failures to.
+     */
+    public ConfigWatcher(Path file, Runnable onChange, Logger logger) {
+        this.file = file;
+        this.onChange = onChange;
+        this.logger = logger;
+    }
+
+    /**
+     * Starts watching the file. Calling this while the watcher is running has no effect.
+     *
+     * @throws IOException If the directory of the file cannot be watched.
+     */
+    public synchronized void start() throws IOException {
+        if (thread != null) {
+            return;
+        }
+        WatchService service = FileSystems.getDefault().newWatchService();
+        try {
+            // Atomic replacements show up as a create event, in-place edits as a modify event
+            file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            service.close();
+            throw e;
+        }
+        watchService = service;
+        thread = new Thread(() -> watch(service), "BetterSpawnProtect-ConfigWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching the file. Calling this while the watcher is stopped has no effect.
+     */
+    public synchronized void stop() {
+        if (thread == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not close the config file watcher", e);
+        }
+        thread.interrupt();
+        watchService = null;
+        thread = null;
+    }
+
+    /**
+     * Checks whether the watcher is running.
+     *
+     * @return {@code true} if the file is being watched, {@code false} otherwise.
+     */
+    public synchronized boolean isRunning() {
+        return thread != null;
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                if (!drain(service.take())) {
+                    continue;
+                }
+                // Wait until the file has been quiet for the debounce interval
+                WatchKey key;
+                while ((key = service.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    drain(key);
+                }
+                try {
+                    onChange.run();
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "Could not handle a change of " + file.getFileName(), e);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // The watcher was stopped
+        }
+    }
+
+    /**
+     * Consumes the events of a key and re-arms it.
+     *
+     * @param key The signalled key.
+     * @return {@code true} if any event concerned the watched file, {@code false} otherwise.
+     */
+    private boolean drain(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                relevant = true;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+}
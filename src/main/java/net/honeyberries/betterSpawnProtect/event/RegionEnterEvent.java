@@ -0,0 +1,33 @@
+package net.honeyberries.betterSpawnProtect.event;
+
+import net.honeyberries.betterSpawnProtect.region.ProtectedRegion;
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Fired after a player has entered a protected region, either by moving or teleporting into it, by
+ * joining or respawning inside it, or because the region was created or changed around them.
+ */
+public final class RegionEnterEvent extends RegionEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    /**
+     * Constructs a new {@code RegionEnterEvent}.
+     *
+     * @param player The player entering the region.
+     * @param region The region.
+     */
+    public RegionEnterEvent(Player player, ProtectedRegion region) {
+        super(player, region);
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,36 @@
+package net.honeyberries.betterSpawnProtect.event;
+
+import net.honeyberries.betterSpawnProtect.region.ProtectedRegion;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerEvent;
+
+/**
+ * The base of the events fired when a player crosses the boundary of a protected region.
+ * These events are fired by the region tracker of BetterSpawnProtect on the player's own
+ * region thread, and only when the set of regions the player stands in actually changes, so
+ * other plugins can react to region transitions without polling player positions.
+ */
+public abstract class RegionEvent extends PlayerEvent {
+
+    private final ProtectedRegion region;
+
+    /**
+     * Constructs a new {@code RegionEvent}.
+     *
+     * @param player The player crossing the boundary.
+     * @param region The region whose boundary was crossed.
+     */
+    protected RegionEvent(Player player, ProtectedRegion region) {
+        super(player);
+        this.region = region;
+    }
+
+    /**
+     * Returns the region whose boundary was crossed.
+     *
+     * @return The region.
+     */
+    public ProtectedRegion getRegion() {
+        return region;
+    }
+}
@@ -0,0 +1,33 @@
+package net.honeyberries.betterSpawnProtect.event;
+
+import net.honeyberries.betterSpawnProtect.region.ProtectedRegion;
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Fired after a player has left a protected region, either by moving or teleporting out of it, or
+ * because the region was removed or changed. Players leaving the server do not fire this event.
+ */
+public final class RegionLeaveEvent extends RegionEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    /**
+     * Constructs a new {@code RegionLeaveEvent}.
+     *
+     * @param player The player leaving the region.
+     * @param region The region.
+     */
+    public RegionLeaveEvent(Player player, ProtectedRegion region) {
+        super(player, region);
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,123 @@
+package net.honeyberries.betterSpawnProtect.listener;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.BlockState;
+import org.bukkit.entity.Entity;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+
+import java.util.Arrays;
+
+/**
+ * Resolves the block positions of the containers and items involved in hopper transfers, for
+ * one thread. Asking an inventory for its location creates a new {@link Location} on every
+ * call, and hoppers move items between the same two containers every few ticks, so the
+ * positions of block containers are remembered in a small table keyed by their inventory.
+ * Inventories are compared through {@link Inventory#equals(Object)}, which matches the
+ * wrappers of one container, and block containers never move, so a remembered position stays
+ * correct for as long as its container exists.
+ * <p>
+ * Containers that can move, such as hopper minecarts, and dropped items are read into a
+ * reused {@link Location} instead. Other inventories, such as double chests, fall back to
+ * {@link Inventory#getLocation()}.
+ * <p>
+ * The result of the last call is read through {@link #world()}, {@link #x()}, {@link #y()}
+ * and {@link #z()}, so callers resolving two positions must copy the first before resolving
+ * the second. Instances are not thread-safe.
+ */
+final class ContainerPositions {
+
+    /**
+     * The number of remembered block containers, a power of two. A collision only costs a
+     * lookup, and the table bounds how many removed containers a thread keeps reachable.
+     */
+    private static final int SIZE = 64;
+
+    private final Inventory[] keys = new Inventory[SIZE];
+    private final World[] worlds = new World[SIZE];
+    private final int[] xs = new int[SIZE];
+    private final int[] ys = new int[SIZE];
+    private final int[] zs = new int[SIZE];
+    private final Location scratch = new Location(null, 0, 0, 0);
+    private int generation;
+
+    private World world;
+    private int x, y, z;
+
+    /**
+     * Resolves the block position of a container.
+     *
+     * @param inventory  The inventory of the container.
+     * @param generation The current generation of loaded worlds. Remembered positions from an
+     *                   older generation are forgotten, so that unloaded worlds are released.
+     * @return {@code true} if the position was resolved, {@code false} for a virtual inventory.
+     */
+    boolean resolve(Inventory inventory, int generation) {
+        if (generation != this.generation) {
+            Arrays.fill(keys, null);
+            Arrays.fill(worlds, null);
+            this.generation = generation;
+        }
+
+        int slot = inventory.hashCode() & (SIZE - 1);
+        if (inventory.equals(keys[slot])) {
+            set(worlds[slot], xs[slot], ys[slot], zs[slot]);
+            return true;
+        }
+
+        InventoryHolder holder = inventory.getHolder(false);
+        if (holder instanceof BlockState block) {
+            set(block.getWorld(), block.getX(), block.getY(), block.getZ());
+            keys[slot] = inventory;
+            worlds[slot] = world;
+            xs[slot] = x;
+            ys[slot] = y;
+            zs[slot] = z;
+            return true;
+        }
+        if (holder instanceof Entity entity) {
+            resolve(entity);
+            return true;
+        }
+        Location location = inventory.getLocation();
+        if (location == null) {
+            return false;
+        }
+        set(location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        return true;
+    }
+
+    /**
+     * Resolves the block position of an entity, such as a dropped item.
+     *
+     * @param entity The entity.
+     */
+    void resolve(Entity entity) {
+        entity.getLocation(scratch);
+        set(scratch.getWorld(), scratch.getBlockX(), scratch.getBlockY(), scratch.getBlockZ());
+    }
+
+    private void set(World world, int x, int y, int z) {
+        this.world = world;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    World world() {
+        return world;
+    }
+
+    int x() {
+        return x;
+    }
+
+    int y() {
+        return y;
+    }
+
+    int z() {
+        return z;
+    }
+}
@@ -0,0 +1,44 @@
+package net.honeyberries.betterSpawnProtect.listener;
+
+import net.honeyberries.betterSpawnProtect.event.RegionEnterEvent;
+import net.honeyberries.betterSpawnProtect.event.RegionLeaveEvent;
+import net.honeyberries.betterSpawnProtect.task.GamemodeTask;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+
+/**
+ * The `GamemodeListener` class feeds region transitions into the {@link GamemodeTask}. The
+ * region tracker only fires its events when a player actually crosses a region boundary, so
+ * the game mode logic never runs for ordinary movement. Joining players are handed to the
+ * staggered sweep, if it is enabled.
+ */
+public class GamemodeListener implements Listener {
+
+    private final GamemodeTask gamemodeTask;
+
+    /**
+     * Constructs a new `GamemodeListener` for the given {@link GamemodeTask}.
+     *
+     * @param gamemodeTask The task that enforces game modes.
+     */
+    public GamemodeListener(GamemodeTask gamemodeTask) {
+        this.gamemodeTask = gamemodeTask;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent e) {
+        gamemodeTask.track(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRegionEnter(RegionEnterEvent e) {
+        gamemodeTask.onRegionChange(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRegionLeave(RegionLeaveEvent e) {
+        gamemodeTask.onRegionChange(e.getPlayer());
+    }
+}
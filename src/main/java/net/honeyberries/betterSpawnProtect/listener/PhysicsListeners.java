@@ -0,0 +1,300 @@
+package net.honeyberries.betterSpawnProtect.listener;
+
+import net.honeyberries.betterSpawnProtect.configuration.ConfigManager;
+import net.honeyberries.betterSpawnProtect.manager.ProtectionManager;
+import net.honeyberries.betterSpawnProtect.metrics.EventMetric;
+import net.honeyberries.betterSpawnProtect.metrics.Metrics;
+import net.honeyberries.betterSpawnProtect.metrics.Outcome;
+import net.honeyberries.betterSpawnProtect.region.RegionFlag;
+import net.honeyberries.betterSpawnProtect.region.RegionIndex;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Item;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFormEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockSpreadEvent;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+import org.bukkit.event.inventory.InventoryPickupItemEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Manages the listeners for natural block changes and automatic container transfers, which are
+ * among the most frequent events on a server. Every category is its own listener group that is only registered while it is
+ * enabled in the configuration and at least one region protects against one of its
+ * {@link RegionFlag}s, so disabled categories cost nothing at all. The groups are reapplied
+ * whenever the configuration is reloaded.
+ * <p>
+ * Each handler looks up the region index of the event's world first, and returns before
+ * reading any block coordinates if the world has no loaded regions.
+ */
+public final class PhysicsListeners {
+
+    /**
+     * A category of natural block changes or transfers, with the configuration key that toggles it and the
+     * region flags its handler checks.
+     */
+    public enum Group {
+        FLUID_FLOW("fluid-flow", RegionFlag.FLUIDS),
+        SPREAD("spread", RegionFlag.FIRE, RegionFlag.GROWTH),
+        FORM("form", RegionFlag.FORM),
+        FADE("fade", RegionFlag.FADE),
+        BURN("burn", RegionFlag.FIRE),
+        CONTAINER_TRANSFER("container-transfer", RegionFlag.INTERACT);
+
+        private final String key;
+        private final RegionFlag[] flags;
+
+        Group(String key, RegionFlag... flags) {
+            this.key = key;
+            this.flags = flags;
+        }
+
+        /**
+         * Returns the key of this category below the {@code physics} configuration section.
+         *
+         * @return The configuration key.
+         */
+        public String key() {
+            return key;
+        }
+
+        /**
+         * Checks whether any region of the given manager protects against a flag of this category.
+         *
+         * @param protectionManager The manager holding the regions.
+         * @return {@code true} if the handler of this category could cancel an event, {@code false} otherwise.
+         */
+        private boolean isProtectedAnywhere(ProtectionManager protectionManager) {
+            for (RegionFlag flag : flags) {
+                if (protectionManager.anyProtects(flag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final Plugin plugin;
+    private final ProtectionManager protectionManager;
+    private final Metrics metrics;
+    private final Map<Group, Listener> registered = new EnumMap<>(Group.class);
+
+    /**
+     * Constructs a new {@code PhysicsListeners} without registering any group. Call
+     * {@link #apply(ConfigManager)} to register the enabled groups.
+     *
+     * @param plugin            The plugin to register the listeners for.
+     * @param protectionManager The manager responsible for the protected area.
+     * @param metrics           The metrics to report checks to.
+     */
+    public PhysicsListeners(Plugin plugin, ProtectionManager protectionManager, Metrics metrics) {
+        this.plugin = plugin;
+        this.protectionManager = protectionManager;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Registers every group that is enabled and not yet registered, and unregisters every group
+     * that has been disabled since the last call.
+     *
+     * @param configManager The configuration to apply.
+     */
+    public synchronized void apply(ConfigManager configManager) {
+        for (Group group : Group.values()) {
+            boolean wanted = configManager.isPhysicsProtected(group.key()) && group.isProtectedAnywhere(protectionManager);
+            Listener current = registered.get(group);
+            if (wanted && current == null) {
+                Listener listener = create(group);
+                plugin.getServer().getPluginManager().registerEvents(listener, plugin);
+                registered.put(group, listener);
+            } else if (!wanted && current != null) {
+                HandlerList.unregisterAll(current);
+                registered.remove(group);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the given group is currently registered.
+     *
+     * @param group The group to check.
+     * @return {@code true} if the group is listening for events, {@code false} otherwise.
+     */
+    public synchronized boolean isRegistered(Group group) {
+        return registered.containsKey(group);
+    }
+
+    private Listener create(Group group) {
+        return switch (group) {
+            case FLUID_FLOW -> new FluidFlowListener();
+            case SPREAD -> new SpreadListener();
+            case FORM -> new FormListener();
+            case FADE -> new FadeListener();
+            case BURN -> new BurnListener();
+            case CONTAINER_TRANSFER -> new ContainerTransferListener();
+        };
+    }
+
+    /**
+     * Cancels the event if the given block is protected against the given category. Events in
+     * worlds without loaded regions return after a single table lookup and are not recorded.
+     *
+     * @param metric   The metric to record the check under.
+     * @param block    The affected block.
+     * @param flag     The category of the change.
+     * @param event    The event to be cancelled if the block is protected.
+     * @param memoized Whether to answer repeated queries for the same position from the
+     *                 per-thread memo, for events that cascade within a tick.
+     */
+    private void cancelIfProtected(EventMetric metric, Block block, RegionFlag flag, Cancellable event, boolean memoized) {
+        RegionIndex index = protectionManager.getIndex(block.getWorld());
+        if (index == null) {
+            return;
+        }
+        long start = metrics.startTimer();
+        boolean isProtected = memoized
+                ? protectionManager.isProtectedMemoized(block, flag)
+                : index.isProtected(block.getX(), block.getY(), block.getZ(), flag.bit());
+        if (isProtected) {
+            event.setCancelled(true);
+        }
+        metrics.record(metric, start, isProtected ? Outcome.DENIED : Outcome.ALLOWED);
+    }
+
+    public final class FluidFlowListener implements Listener {
+        @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
+        public void onBlockFromTo(BlockFromToEvent e) {
+            cancelIfProtected(EventMetric.BLOCK_FROM_TO, e.getToBlock(), RegionFlag.FLUIDS, e, true);
+        }
+    }
+
+    public final class SpreadListener implements Listener {
+        @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
+        public void onSpread(BlockSpreadEvent e) {
+            RegionFlag flag = e.getSource().getType() == Material.FIRE ? RegionFlag.FIRE : RegionFlag.GROWTH;
+            cancelIfProtected(EventMetric.SPREAD, e.getBlock(), flag, e, true);
+        }
+    }
+
+    public final class FormListener implements Listener {
+        @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
+        public void onBlockForm(BlockFormEvent e) {
+            cancelIfProtected(EventMetric.BLOCK_FORM, e.getBlock(), RegionFlag.FORM, e, false);
+        }
+    }
+
+    public final class FadeListener implements Listener {
+        @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
+        public void onBlockFade(BlockFadeEvent e) {
+            cancelIfProtected(EventMetric.BLOCK_FADE, e.getBlock(), RegionFlag.FADE, e, false);
+        }
+    }
+
+    public final class BurnListener implements Listener {
+        @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
+        public void onBurn(BlockBurnEvent e) {
+            cancelIfProtected(EventMetric.BURN, e.getBlock(), RegionFlag.FIRE, e, false);
+        }
+    }
+
+    /**
+     * Cancels the event if moving items from the source to the destination crosses the border
+     * of a region that protects its containers.
+     *
+     * @param metric The metric to record the check under.
+     * @param world  The world of both positions.
+     * @param event  The event to be cancelled if the transfer is denied.
+     */
+    private void cancelIfTransferDenied(EventMetric metric, World world, int sourceX, int sourceY, int sourceZ,
+                                        int targetX, int targetY, int targetZ, Cancellable event) {
+        long start = metrics.startTimer();
+        boolean denied = protectionManager.isTransferDenied(world, sourceX, sourceY, sourceZ,
+                targetX, targetY, targetZ, RegionFlag.INTERACT);
+        if (denied) {
+            event.setCancelled(true);
+        }
+        metrics.record(metric, start, denied ? Outcome.DENIED : Outcome.ALLOWED);
+    }
+
+    /**
+     * Stops hoppers and hopper minecarts from moving items across the border of a region that
+     * protects its containers, in either direction. Players who may not open a protected chest
+     * would otherwise empty it with a hopper placed just outside. Hoppers picking up dropped
+     * items are held to the same rule, comparing the block of the item with the hopper, so
+     * that items cannot be pulled out of a region by a hopper or hopper minecart reaching
+     * across its border.
+     * <p>
+     * Positions are resolved through a {@link ContainerPositions} of each thread, so that
+     * repeated transfers between the same block containers do not read their locations again.
+     * The tables belong to this listener and are released with it when the group is
+     * unregistered, and they are reset whenever a world unloads.
+     */
+    public final class ContainerTransferListener implements Listener {
+
+        private final ThreadLocal<ContainerPositions> positions = ThreadLocal.withInitial(ContainerPositions::new);
+
+        /**
+         * Incremented on every world unload, so that the tables forget containers of the
+         * unloaded world.
+         */
+        private volatile int generation;
+
+        @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
+        public void onInventoryMoveItem(InventoryMoveItemEvent e) {
+            ContainerPositions positions = this.positions.get();
+            int generation = this.generation;
+            // Virtual inventories have no position, and worlds without regions need no checks
+            if (!positions.resolve(e.getSource(), generation)) {
+                return;
+            }
+            World world = positions.world();
+            if (protectionManager.getIndex(world) == null) {
+                return;
+            }
+            int sourceX = positions.x();
+            int sourceY = positions.y();
+            int sourceZ = positions.z();
+            if (!positions.resolve(e.getDestination(), generation) || positions.world() != world) {
+                return;
+            }
+            cancelIfTransferDenied(EventMetric.INVENTORY_MOVE_ITEM, world, sourceX, sourceY, sourceZ,
+                    positions.x(), positions.y(), positions.z(), e);
+        }
+
+        @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
+        public void onInventoryPickupItem(InventoryPickupItemEvent e) {
+            Item item = e.getItem();
+            World world = item.getWorld();
+            if (protectionManager.getIndex(world) == null) {
+                return;
+            }
+            ContainerPositions positions = this.positions.get();
+            positions.resolve(item);
+            int itemX = positions.x();
+            int itemY = positions.y();
+            int itemZ = positions.z();
+            if (!positions.resolve(e.getInventory(), generation) || positions.world() != world) {
+                return;
+            }
+            cancelIfTransferDenied(EventMetric.INVENTORY_PICKUP_ITEM, world, itemX, itemY, itemZ,
+                    positions.x(), positions.y(), positions.z(), e);
+        }
+
+        @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+        public void onWorldUnload(WorldUnloadEvent e) {
+            generation++;
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package net.honeyberries.betterSpawnProtect.listener;
 
+import net.honeyberries.betterSpawnProtect.manager.BypassCache;
 import net.honeyberries.betterSpawnProtect.manager.ProtectionManager;
+import net.honeyberries.betterSpawnProtect.metrics.EventMetric;
+import net.honeyberries.betterSpawnProtect.metrics.Metrics;
+import net.honeyberries.betterSpawnProtect.metrics.Outcome;
+import net.honeyberries.betterSpawnProtect.region.RegionFlag;
 import net.honeyberries.betterSpawnProtect.util.MessageGate;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
-import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
@@ -22,28 +26,40 @@ import org.bukkit.event.hanging.HangingBreakEvent;
 import org.bukkit.event.player.*;
 import org.bukkit.event.world.StructureGrowEvent;
 
+import java.util.List;
+
 /**
  * The `ProtectionListener` class is responsible for handling all events related to spawn protection.
  * It listens for various player and world events and cancels them if they occur within the protected
  * spawn area and the player does not have bypass permissions. This class is crucial for enforcing
  * the protection rules defined in the {@link ProtectionManager}.
+ * <p>
+ * Every handler reports its checks, denials, bypasses and latency to {@link Metrics} under its
+ * own {@link EventMetric}. Natural block changes such as fluid flow and fire are handled by
+ * {@link PhysicsListeners}, which only registers the categories that are enabled.
  */
 public class ProtectionListener implements Listener {
 
     private final ProtectionManager protectionManager;
     private final MessageGate messageGate;
-    private static final String BYPASS_PERMISSION = "betterspawnprotect.bypass";
+    private final BypassCache bypassCache;
+    private final Metrics metrics;
     private static final Component DENY_MESSAGE = Component.text("You cannot modify the protected spawn area!", NamedTextColor.RED);
 
     /**
-     * Constructs a new `ProtectionListener` with the specified {@link ProtectionManager} and {@link MessageGate}.
+     * Constructs a new `ProtectionListener` with the specified {@link ProtectionManager}, {@link MessageGate},
+     * {@link BypassCache} and {@link Metrics}.
      *
      * @param protectionManager The manager responsible for the protected area.
      * @param messageGate       The gatekeeper for sending messages to players, preventing spam.
+     * @param bypassCache       The cache of per-player bypass decisions.
+     * @param metrics           The metrics to report checks to.
      */
-    public ProtectionListener(ProtectionManager protectionManager, MessageGate messageGate) {
+    public ProtectionListener(ProtectionManager protectionManager, MessageGate messageGate, BypassCache bypassCache, Metrics metrics) {
         this.protectionManager = protectionManager;
         this.messageGate = messageGate;
+        this.bypassCache = bypassCache;
+        this.metrics = metrics;
     }
 
     /**
@@ -53,7 +69,7 @@ public class ProtectionListener implements Listener {
      * @return {@code true} if the player can bypass protection (e.g., is in creative/spectator mode or has the bypass permission), {@code false} otherwise.
      */
     private boolean canBypass(Player player) {
-        return player.getGameMode() == GameMode.CREATIVE || player.getGameMode() == GameMode.SPECTATOR || player.hasPermission(BYPASS_PERMISSION);
+        return bypassCache.canBypass(player);
     }
 
     /**
@@ -61,169 +77,273 @@ public class ProtectionListener implements Listener {
      * within a protected area and if the player has bypass permissions. If the action is not allowed,
      * the event is cancelled, and the player is notified.
      *
+     * @param metric The metric to record the check under.
      * @param player The player performing the action.
      * @param loc    The location where the action is occurring.
+     * @param flag   The category of the action.
      * @param event  The event to be cancelled if the action is disallowed.
      */
-    private void handlePlayerAction(Player player, Location loc, Cancellable event) {
+    private void handlePlayerAction(EventMetric metric, Player player, Location loc, RegionFlag flag, Cancellable event) {
+        long start = metrics.startTimer();
+        Outcome outcome;
         if (canBypass(player)) {
-            return; // Player has bypass permissions, so we don't need to do anything.
+            outcome = Outcome.BYPASSED; // Player has bypass permissions, so we don't need to do anything.
+        } else if (protectionManager.isProtected(loc, flag)) {
+            deny(player, event);
+            outcome = Outcome.DENIED;
+        } else {
+            outcome = Outcome.ALLOWED;
         }
+        metrics.record(metric, start, outcome);
+    }
+
+    /**
+     * A variant of {@link #handlePlayerAction(EventMetric, Player, Location, RegionFlag, Cancellable)} for
+     * actions on a block. The block is checked through its coordinates, so no {@link Location}
+     * is created.
+     *
+     * @param metric The metric to record the check under.
+     * @param player The player performing the action.
+     * @param block  The block the action is performed on.
+     * @param flag   The category of the action.
+     * @param event  The event to be cancelled if the action is disallowed.
+     */
+    private void handlePlayerAction(EventMetric metric, Player player, Block block, RegionFlag flag, Cancellable event) {
+        long start = metrics.startTimer();
+        Outcome outcome;
+        if (canBypass(player)) {
+            outcome = Outcome.BYPASSED; // Player has bypass permissions, so we don't need to do anything.
+        } else if (protectionManager.isProtected(block, flag)) {
+            deny(player, event);
+            outcome = Outcome.DENIED;
+        } else {
+            outcome = Outcome.ALLOWED;
+        }
+        metrics.record(metric, start, outcome);
+    }
 
-        if (protectionManager.isProtected(loc)) {
+    /**
+     * Cancels an event that is not caused by a player if it affects a protected block.
+     *
+     * @param metric The metric to record the check under.
+     * @param block  The affected block.
+     * @param flag   The category of the change.
+     * @param event  The event to be cancelled if the block is protected.
+     */
+    private void cancelIfProtected(EventMetric metric, Block block, RegionFlag flag, Cancellable event) {
+        long start = metrics.startTimer();
+        boolean isProtected = protectionManager.isProtected(block, flag);
+        if (isProtected) {
+            event.setCancelled(true);
+        }
+        metrics.record(metric, start, isProtected ? Outcome.DENIED : Outcome.ALLOWED);
+    }
+
+    /**
+     * A variant of {@link #cancelIfProtected(EventMetric, Block, RegionFlag, Cancellable)} for
+     * events that only provide a {@link Location}.
+     *
+     * @param metric The metric to record the check under.
+     * @param loc    The affected location.
+     * @param flag   The category of the change.
+     * @param event  The event to be cancelled if the location is protected.
+     */
+    private void cancelIfProtected(EventMetric metric, Location loc, RegionFlag flag, Cancellable event) {
+        long start = metrics.startTimer();
+        boolean isProtected = protectionManager.isProtected(loc, flag);
+        if (isProtected) {
             event.setCancelled(true);
-            if (messageGate.canSend(player.getUniqueId())) {
-                player.sendMessage(DENY_MESSAGE);
-            }
         }
+        metrics.record(metric, start, isProtected ? Outcome.DENIED : Outcome.ALLOWED);
+    }
+
+    /**
+     * Cancels the event and notifies the player, unless they were notified recently.
+     *
+     * @param player The player whose action is denied.
+     * @param event  The event to cancel.
+     */
+    private void deny(Player player, Cancellable event) {
+        event.setCancelled(true);
+        if (messageGate.canSend(player.getUniqueId())) {
+            player.sendMessage(DENY_MESSAGE);
+        }
+    }
+
+    /**
+     * Drops the message cooldown and cached bypass decision of players leaving the server, so
+     * neither keeps entries for players who are no longer online.
+     *
+     * @param e The {@link PlayerQuitEvent} triggered when a player leaves.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent e) {
+        messageGate.forget(e.getPlayer().getUniqueId());
+        bypassCache.invalidate(e.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Drops the cached bypass decision of a player whose game mode changes, since Creative
+     * and Spectator mode grant a bypass.
+     *
+     * @param e The {@link PlayerGameModeChangeEvent} triggered when a player's game mode changes.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onGameModeChange(PlayerGameModeChangeEvent e) {
+        bypassCache.invalidate(e.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Drops the cached bypass decision of a player changing worlds, since permission plugins
+     * may grant different permissions per world.
+     *
+     * @param e The {@link PlayerChangedWorldEvent} triggered when a player changes worlds.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChangedWorld(PlayerChangedWorldEvent e) {
+        bypassCache.invalidate(e.getPlayer().getUniqueId());
     }
 
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
     public void onBlockBreak(BlockBreakEvent e) {
-        handlePlayerAction(e.getPlayer(), e.getBlock().getLocation(), e);
+        handlePlayerAction(EventMetric.BLOCK_BREAK, e.getPlayer(), e.getBlock(), RegionFlag.BREAK, e);
     }
 
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
     public void onBlockPlace(BlockPlaceEvent e) {
-        handlePlayerAction(e.getPlayer(), e.getBlockPlaced().getLocation(), e);
+        handlePlayerAction(EventMetric.BLOCK_PLACE, e.getPlayer(), e.getBlockPlaced(), RegionFlag.PLACE, e);
     }
 
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
     public void onBucketEmpty(PlayerBucketEmptyEvent e) {
-        handlePlayerAction(e.getPlayer(), e.getBlockClicked().getLocation(), e);
+        handlePlayerAction(EventMetric.BUCKET_EMPTY, e.getPlayer(), e.getBlockClicked(), RegionFlag.BUCKETS, e);
     }
 
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
     public void onBucketFill(PlayerBucketFillEvent e) {
-        handlePlayerAction(e.getPlayer(), e.getBlockClicked().getLocation(), e);
+        handlePlayerAction(EventMetric.BUCKET_FILL, e.getPlayer(), e.getBlockClicked(), RegionFlag.BUCKETS, e);
     }
 
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
     public void onPlayerInteract(PlayerInteractEvent e) {
         if (e.getClickedBlock() != null) {
-            handlePlayerAction(e.getPlayer(), e.getClickedBlock().getLocation(), e);
+            handlePlayerAction(EventMetric.PLAYER_INTERACT, e.getPlayer(), e.getClickedBlock(), RegionFlag.INTERACT, e);
         }
     }
 
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
     public void onArmorStandManipulate(PlayerArmorStandManipulateEvent e) {
-        handlePlayerAction(e.getPlayer(), e.getRightClicked().getLocation(), e);
+        handlePlayerAction(EventMetric.ARMOR_STAND_MANIPULATE, e.getPlayer(), e.getRightClicked().getLocation(), RegionFlag.ARMOR_STANDS, e);
     }
 
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
     public void onPistonExtend(BlockPistonExtendEvent e) {
-        for (Block block : e.getBlocks()) {
-            if (protectionManager.isProtected(block.getRelative(e.getDirection()).getLocation())) {
-                e.setCancelled(true);
-                break;
-            }
-        }
+        handlePistonMove(EventMetric.PISTON_EXTEND, e, e.getBlocks(), true);
     }
 
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
     public void onPistonRetract(BlockPistonRetractEvent e) {
-        for (Block block : e.getBlocks()) {
-            if (protectionManager.isProtected(block.getLocation())) {
-                e.setCancelled(true);
-                break;
-            }
+        handlePistonMove(EventMetric.PISTON_RETRACT, e, e.getBlocks(), false);
+    }
+
+    /**
+     * Cancels a piston move if the piston head, or any moved block at its source or
+     * destination, is protected against pistons.
+     *
+     * @param metric    The metric to record the check under.
+     * @param e         The piston event.
+     * @param moved     The blocks moved by the piston.
+     * @param extending {@code true} if the piston extends, {@code false} if it retracts.
+     */
+    private void handlePistonMove(EventMetric metric, BlockPistonEvent e, List<Block> moved, boolean extending) {
+        long start = metrics.startTimer();
+        boolean isProtected = protectionManager.isPistonMoveProtected(e.getBlock(), e.getDirection(), moved, extending);
+        if (isProtected) {
+            e.setCancelled(true);
         }
+        metrics.record(metric, start, isProtected ? Outcome.DENIED : Outcome.ALLOWED);
     }
 
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
     public void onHangingBreak(HangingBreakEvent e) {
+        long start = metrics.startTimer();
         Location loc = e.getEntity().getLocation();
-        if (!protectionManager.isProtected(loc)) {
+        if (!protectionManager.isProtected(loc, RegionFlag.HANGING)) {
+            metrics.record(EventMetric.HANGING_BREAK, start, Outcome.ALLOWED);
             return;
         }
 
-        if (e instanceof HangingBreakByEntityEvent byEntityEvent) {
-            if (byEntityEvent.getRemover() instanceof Player player) {
-                handlePlayerAction(player, loc, e);
-            } else {
-                e.setCancelled(true);
+        if (e instanceof HangingBreakByEntityEvent byEntityEvent && byEntityEvent.getRemover() instanceof Player player) {
+            if (canBypass(player)) {
+                metrics.record(EventMetric.HANGING_BREAK, start, Outcome.BYPASSED);
+                return;
             }
+            deny(player, e);
         } else {
             e.setCancelled(true);
         }
+        metrics.record(EventMetric.HANGING_BREAK, start, Outcome.DENIED);
     }
 
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
     public void onEntityChangeBlock(EntityChangeBlockEvent e) {
-        if (protectionManager.isProtected(e.getBlock().getLocation())) {
-            e.setCancelled(true);
-        }
+        cancelIfProtected(EventMetric.ENTITY_CHANGE_BLOCK, e.getBlock(), RegionFlag.ENTITY_GRIEF, e);
     }
 
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
     public void onEntityExplode(EntityExplodeEvent e) {
-        e.blockList().removeIf(block -> protectionManager.isProtected(block.getLocation()));
+        filterExplosion(EventMetric.ENTITY_EXPLODE, e.blockList());
     }
 
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
     public void onBlockExplode(BlockExplodeEvent e) {
-        e.blockList().removeIf(block -> protectionManager.isProtected(block.getLocation()));
+        filterExplosion(EventMetric.BLOCK_EXPLODE, e.blockList());
     }
 
-    @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
-    public void onIgnite(BlockIgniteEvent e) {
-        if (e.getPlayer() != null) {
-            handlePlayerAction(e.getPlayer(), e.getBlock().getLocation(), e);
-        } else if (protectionManager.isProtected(e.getBlock().getLocation())) {
-            e.setCancelled(true);
-        }
-    }
-
-    @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
-    public void onBurn(BlockBurnEvent e) {
-        if (protectionManager.isProtected(e.getBlock().getLocation())) {
-            e.setCancelled(true);
-        }
+    /**
+     * Removes the blocks protected against explosions from an explosion. The explosion counts as denied if any
+     * block was removed.
+     *
+     * @param metric The metric to record the check under.
+     * @param blocks The mutable list of blocks affected by the explosion.
+     */
+    private void filterExplosion(EventMetric metric, List<Block> blocks) {
+        long start = metrics.startTimer();
+        int sizeBefore = blocks.size();
+        protectionManager.removeProtected(blocks);
+        metrics.record(metric, start, blocks.size() < sizeBefore ? Outcome.DENIED : Outcome.ALLOWED);
     }
 
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
-    public void onSpread(BlockSpreadEvent e) {
-        if (protectionManager.isProtected(e.getBlock().getLocation())) {
-            e.setCancelled(true);
+    public void onIgnite(BlockIgniteEvent e) {
+        if (e.getPlayer() != null) {
+            handlePlayerAction(EventMetric.IGNITE, e.getPlayer(), e.getBlock(), RegionFlag.FIRE, e);
+        } else {
+            // Natural ignition comes in cascades of spreading fire and lava, so repeated positions are memoized
+            long start = metrics.startTimer();
+            boolean isProtected = protectionManager.isProtectedMemoized(e.getBlock(), RegionFlag.FIRE);
+            if (isProtected) {
+                e.setCancelled(true);
+            }
+            metrics.record(EventMetric.IGNITE, start, isProtected ? Outcome.DENIED : Outcome.ALLOWED);
         }
     }
 
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
     public void onStructureGrow(StructureGrowEvent e) {
         if (e.getPlayer() != null) {
-            handlePlayerAction(e.getPlayer(), e.getLocation(), e);
-        } else if (protectionManager.isProtected(e.getLocation())) {
-            e.setCancelled(true);
-        }
-    }
-
-    @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
-    public void onBlockForm(BlockFormEvent e) {
-        if (protectionManager.isProtected(e.getBlock().getLocation())) {
-            e.setCancelled(true);
-        }
-    }
-
-    @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
-    public void onBlockFade(BlockFadeEvent e) {
-        if (protectionManager.isProtected(e.getBlock().getLocation())) {
-            e.setCancelled(true);
-        }
-    }
-
-    @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
-    public void onBlockFromTo(BlockFromToEvent e) {
-        if (protectionManager.isProtected(e.getToBlock().getLocation())) {
-            e.setCancelled(true);
+            handlePlayerAction(EventMetric.STRUCTURE_GROW, e.getPlayer(), e.getLocation(), RegionFlag.GROWTH, e);
+        } else {
+            cancelIfProtected(EventMetric.STRUCTURE_GROW, e.getLocation(), RegionFlag.GROWTH, e);
         }
     }
 
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
     public void onBlockFertilize(BlockFertilizeEvent e) {
         if (e.getPlayer() != null) {
-            handlePlayerAction(e.getPlayer(), e.getBlock().getLocation(), e);
-        } else if (protectionManager.isProtected(e.getBlock().getLocation())) {
-            e.setCancelled(true);
+            handlePlayerAction(EventMetric.BLOCK_FERTILIZE, e.getPlayer(), e.getBlock(), RegionFlag.GROWTH, e);
+        } else {
+            cancelIfProtected(EventMetric.BLOCK_FERTILIZE, e.getBlock(), RegionFlag.GROWTH, e);
         }
     }
 
@@ -236,16 +356,20 @@ public class ProtectionListener implements Listener {
      */
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
     public void onEntityDamageByEntity(EntityDamageByEntityEvent e) {
+        long start = metrics.startTimer();
         Entity damager = e.getDamager();
         Entity victim = e.getEntity();
 
         // Check if the action is taking place in a protected area
-        if (protectionManager.isProtected(victim.getLocation())) {
+        if (protectionManager.isProtected(victim.getLocation(), RegionFlag.ENTITY_DAMAGE)) {
             // Prevent players from attacking non-player entities
             e.setCancelled(true);
             if (damager instanceof Player player && messageGate.canSend(player.getUniqueId())) {
                 player.sendMessage(DENY_MESSAGE);
             }
+            metrics.record(EventMetric.ENTITY_DAMAGE_BY_ENTITY, start, Outcome.DENIED);
+        } else {
+            metrics.record(EventMetric.ENTITY_DAMAGE_BY_ENTITY, start, Outcome.ALLOWED);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package net.honeyberries.betterSpawnProtect.listener;
+
+import net.honeyberries.betterSpawnProtect.manager.RegionTracker;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+/**
+ * The `RegionTrackerListener` class feeds player position changes into the
+ * {@link RegionTracker}. Moves within the same block are ignored, so the tracker only runs
+ * when a player steps onto a new block. Teleports, respawns, world changes and joins trigger
+ * a full re-evaluation once the player has arrived.
+ */
+public class RegionTrackerListener implements Listener {
+
+    private final RegionTracker regionTracker;
+
+    /**
+     * Constructs a new `RegionTrackerListener` for the given {@link RegionTracker}.
+     *
+     * @param regionTracker The tracker of the regions each player stands in.
+     */
+    public RegionTrackerListener(RegionTracker regionTracker) {
+        this.regionTracker = regionTracker;
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onPlayerMove(PlayerMoveEvent e) {
+        if (e.hasChangedBlock()) {
+            regionTracker.update(e.getPlayer(), e.getTo());
+        }
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onPlayerTeleport(PlayerTeleportEvent e) {
+        regionTracker.scheduleRefresh(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent e) {
+        regionTracker.scheduleRefresh(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent e) {
+        regionTracker.scheduleRefresh(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent e) {
+        regionTracker.scheduleRefresh(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent e) {
+        regionTracker.forget(e.getPlayer().getUniqueId());
+    }
+}
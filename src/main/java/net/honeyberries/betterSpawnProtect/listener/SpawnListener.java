@@ -0,0 +1,65 @@
+package net.honeyberries.betterSpawnProtect.listener;
+
+import net.honeyberries.betterSpawnProtect.manager.ProtectionManager;
+import net.honeyberries.betterSpawnProtect.metrics.EventMetric;
+import net.honeyberries.betterSpawnProtect.metrics.Metrics;
+import net.honeyberries.betterSpawnProtect.metrics.Outcome;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.CreatureSpawnEvent;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Enforces the spawn-control rules of the protected regions. Creature spawns are among the most
+ * frequent events on a server, so this listener is only registered while at least one rule is
+ * configured, and each spawn is decided by
+ * {@link ProtectionManager#isSpawnDenied(org.bukkit.entity.Entity, CreatureSpawnEvent.SpawnReason)},
+ * which settles most spawns with a single lookup.
+ */
+public final class SpawnListener implements Listener {
+
+    private final Plugin plugin;
+    private final ProtectionManager protectionManager;
+    private final Metrics metrics;
+    private boolean registered;
+
+    /**
+     * Constructs a new {@code SpawnListener} without registering it. Call {@link #apply()} to
+     * register it if any rule is configured.
+     *
+     * @param plugin            The plugin to register the listener for.
+     * @param protectionManager The manager responsible for the protected area.
+     * @param metrics           The metrics to report checks to.
+     */
+    public SpawnListener(Plugin plugin, ProtectionManager protectionManager, Metrics metrics) {
+        this.plugin = plugin;
+        this.protectionManager = protectionManager;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Registers the listener if spawn-control rules are configured and it is not registered yet,
+     * or unregisters it if no rules are left.
+     */
+    public synchronized void apply() {
+        boolean wanted = protectionManager.hasSpawnRules();
+        if (wanted && !registered) {
+            plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        } else if (!wanted && registered) {
+            HandlerList.unregisterAll(this);
+        }
+        registered = wanted;
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
+    public void onCreatureSpawn(CreatureSpawnEvent e) {
+        long start = metrics.startTimer();
+        boolean denied = protectionManager.isSpawnDenied(e.getEntity(), e.getSpawnReason());
+        if (denied) {
+            e.setCancelled(true);
+        }
+        metrics.record(EventMetric.CREATURE_SPAWN, start, denied ? Outcome.DENIED : Outcome.ALLOWED);
+    }
+}
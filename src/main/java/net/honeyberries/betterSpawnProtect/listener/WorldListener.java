@@ -0,0 +1,37 @@
+package net.honeyberries.betterSpawnProtect.listener;
+
+import net.honeyberries.betterSpawnProtect.manager.ProtectionManager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+/**
+ * The `WorldListener` class binds worlds to the {@link ProtectionManager} as they load and
+ * unbinds them as they unload. This lets regions in worlds that load after the plugin, such
+ * as worlds created by a world management plugin, take effect without a reload.
+ */
+public class WorldListener implements Listener {
+
+    private final ProtectionManager protectionManager;
+
+    /**
+     * Constructs a new `WorldListener` for the given {@link ProtectionManager}.
+     *
+     * @param protectionManager The manager to bind worlds to.
+     */
+    public WorldListener(ProtectionManager protectionManager) {
+        this.protectionManager = protectionManager;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent e) {
+        protectionManager.bindWorld(e.getWorld());
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onWorldUnload(WorldUnloadEvent e) {
+        protectionManager.unbindWorld(e.getWorld());
+    }
+}
@@ -0,0 +1,98 @@
+package net.honeyberries.betterSpawnProtect.manager;
+
+import org.bukkit.GameMode;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches per-player bypass decisions, so that protected events do not query the permission
+ * plugin every time they fire. Entries are invalidated when a player changes game mode or
+ * world, when they leave the server, and on reload. Because Bukkit has no general event for
+ * permission recalculation, entries also expire after {@value #TTL_SECONDS} seconds, which
+ * bounds how long a permission change can take to be noticed.
+ */
+public class BypassCache {
+
+    /**
+     * The permission that allows a player to bypass spawn protection.
+     */
+    public static final String BYPASS_PERMISSION = "betterspawnprotect.bypass";
+
+    /**
+     * The time after which a cached decision is recomputed, in seconds.
+     */
+    private static final long TTL_SECONDS = 5L;
+
+    private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(TTL_SECONDS);
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Checks if a player is allowed to bypass the spawn protection, either because they are in
+     * Creative or Spectator mode or because they have the bypass permission.
+     *
+     * @param player The player to check.
+     * @return {@code true} if the player can bypass protection, {@code false} otherwise.
+     */
+    public boolean canBypass(Player player) {
+        return lookup(player).bypass;
+    }
+
+    /**
+     * Checks if a player has the bypass permission, regardless of their game mode.
+     *
+     * @param player The player to check.
+     * @return {@code true} if the player has the bypass permission, {@code false} otherwise.
+     */
+    public boolean hasBypassPermission(Player player) {
+        return lookup(player).permission;
+    }
+
+    /**
+     * Drops the cached decision of a player, so it is recomputed on the next lookup.
+     *
+     * @param uuid The UUID of the player.
+     */
+    public void invalidate(UUID uuid) {
+        entries.remove(uuid);
+    }
+
+    /**
+     * Drops every cached decision.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private Entry lookup(Player player) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(player.getUniqueId());
+        if (entry == null || now - entry.createdAt >= TTL_NANOS) {
+            boolean permission = player.hasPermission(BYPASS_PERMISSION);
+            GameMode gameMode = player.getGameMode();
+            boolean bypass = permission || gameMode == GameMode.CREATIVE || gameMode == GameMode.SPECTATOR;
+            entry = new Entry(permission, bypass, now);
+            entries.put(player.getUniqueId(), entry);
+        }
+        return entry;
+    }
+
+    /**
+     * A cached bypass decision.
+     */
+    private static final class Entry {
+        private final boolean permission;
+        private final boolean bypass;
+        private final long createdAt;
+
+        private Entry(boolean permission, boolean bypass, long createdAt) {
+            this.permission = permission;
+            this.bypass = bypass;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package net.honeyberries.betterSpawnProtect.manager;
+
+import net.honeyberries.betterSpawnProtect.region.RegionIndex;
+import net.honeyberries.betterSpawnProtect.util.CoordinateKeys;
+
+import java.util.Arrays;
+
+/**
+ * A small, fixed-size memo of recent protection decisions by packed block position. Fluid
+ * flows and fire spread query the same few positions over and over within a tick, so a cascade
+ * along a region border costs one probe per repeated query instead of a shape test.
+ * <p>
+ * Every thread has its own memo, which on Folia means one per region thread, so the memo needs
+ * no synchronization. The memos are handed out by the {@link ProtectionManager}, which owns
+ * the thread-local holding them and drops it when the plugin is disabled. Every entry records
+ * the {@link RegionIndex} and the flag mask it was computed for, so an entry is only ever
+ * reused for the same world, the same geometry and the same category of change. The memo is
+ * cleared at the start of every tick-length time slice, and whenever the bound
+ * {@link WorldTable} changes, so it never keeps indexes of an earlier snapshot alive. When the
+ * short probe window of a position is full, the entry in its home slot is overwritten, keeping
+ * the memory of the memo constant.
+ */
+final class DecisionMemo {
+
+    /**
+     * The number of entries per memo. Must be a power of two.
+     */
+    static final int CAPACITY = 1024;
+
+    /**
+     * The number of slots probed for a position before an entry is overwritten.
+     */
+    static final int MAX_PROBE = 4;
+
+    /**
+     * The length of a server tick at the full rate of 20 ticks per second, in nanoseconds. The
+     * memo is cleared whenever a query falls into a later time slice of this length than the
+     * previous one. Region threads on Folia tick independently, so the slices stand in for their
+     * tick boundaries rather than matching them exactly.
+     */
+    static final long TICK_NANOS = 50_000_000L;
+
+    private static final int MASK = CAPACITY - 1;
+
+    private final long[] keys = new long[CAPACITY];
+    private final RegionIndex[] owners = new RegionIndex[CAPACITY];
+    private final int[] masks = new int[CAPACITY];
+    private final boolean[] decisions = new boolean[CAPACITY];
+    private WorldTable table;
+    private long slice = Long.MIN_VALUE;
+
+    DecisionMemo() {
+    }
+
+    /**
+     * Prepares the memo for a query, clearing it first if the given table differs from the one
+     * its entries were computed under, or if a new tick-length time slice has begun.
+     *
+     * @param table    The currently bound world table.
+     * @param nanoTime The current value of {@link System#nanoTime()}.
+     * @return This memo.
+     */
+    DecisionMemo prepare(WorldTable table, long nanoTime) {
+        long currentSlice = nanoTime / TICK_NANOS;
+        if (this.table != table || slice != currentSlice) {
+            clear();
+            this.table = table;
+            slice = currentSlice;
+        }
+        return this;
+    }
+
+    /**
+     * Drops every entry and the bound table, so that the memo no longer references any index.
+     */
+    void clear() {
+        Arrays.fill(owners, null);
+        table = null;
+    }
+
+    /**
+     * Checks whether the given block is protected, answering from the memo if the same index
+     * was asked about the same position before.
+     *
+     * @param index  The index of the block's world.
+     * @param blockX The block X coordinate.
+     * @param blockY The block Y coordinate.
+     * @param blockZ The block Z coordinate.
+     * @param mask   The bits of the {@link net.honeyberries.betterSpawnProtect.region.RegionFlag}s to check.
+     * @return {@code true} if the block is protected, {@code false} otherwise.
+     */
+    boolean isProtected(RegionIndex index, int blockX, int blockY, int blockZ, int mask) {
+        long key = CoordinateKeys.blockKey(blockX, blockY, blockZ);
+        int home = mix(key) & MASK;
+        // If the probe window is full, the entry at the home slot makes room
+        int target = home;
+        for (int i = 0; i < MAX_PROBE; i++) {
+            int slot = (home + i) & MASK;
+            RegionIndex owner = owners[slot];
+            if (owner == null) {
+                target = slot;
+                break;
+            }
+            if (owner == index && keys[slot] == key && masks[slot] == mask) {
+                return decisions[slot];
+            }
+        }
+
+        boolean decision = index.isProtected(blockX, blockY, blockZ, mask);
+        keys[target] = key;
+        owners[target] = index;
+        masks[target] = mask;
+        decisions[target] = decision;
+        return decision;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -1,40 +1,136 @@
 package net.honeyberries.betterSpawnProtect.manager;
 
+import net.honeyberries.betterSpawnProtect.api.RegionSnapshot;
+import net.honeyberries.betterSpawnProtect.api.SpawnProtectionService;
 import net.honeyberries.betterSpawnProtect.configuration.ConfigManager;
+import net.honeyberries.betterSpawnProtect.region.ChunkClassification;
+import net.honeyberries.betterSpawnProtect.region.ProtectedRegion;
+import net.honeyberries.betterSpawnProtect.region.ProtectionSnapshot;
+import net.honeyberries.betterSpawnProtect.region.RegionFlag;
+import net.honeyberries.betterSpawnProtect.region.RegionIndex;
+import net.honeyberries.betterSpawnProtect.region.RegionShape;
+import net.honeyberries.betterSpawnProtect.region.RegionStore;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.entity.Enemy;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
 import org.bukkit.plugin.Plugin;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 
 /**
- * Manages the spawn protection area, including its properties and location checks.
- * This class is responsible for loading the protection settings from the configuration,
- * determining if a location is within the protected zone, and updating the protection
- * parameters as needed.
+ * Manages the protected areas, including their properties and location checks.
+ * This class is responsible for loading the protected regions from the configuration,
+ * determining if a location is within any protected zone, and updating the main spawn
+ * region as needed. Regions are grouped per world into a {@link RegionIndex}, so that
+ * location checks stay cheap no matter how many regions are configured.
+ * <p>
+ * All geometry lives in an immutable {@link ProtectionSnapshot}, so queries from any region
+ * thread are lock-free and always see a consistent world, center and radius. Queries resolve
+ * the world through a {@link WorldTable} of the loaded, protected worlds, which is kept up to
+ * date through {@link #bindWorld(World)} and {@link #unbindWorld(World)} as worlds load and
+ * unload. Regions in a world that is not loaded yet take effect as soon as it loads.
+ * <p>
+ * The queries of the public {@link SpawnProtectionService} are implemented here, and the
+ * manager is registered as that service for other plugins.
  */
-public class ProtectionManager {
+public class ProtectionManager implements SpawnProtectionService {
+
+    /**
+     * The name of the main spawn region, configured through the {@code protection} section.
+     */
+    public static final String SPAWN_REGION = "spawn";
 
     private final Plugin plugin;
-    private World world;
-    private double cx, cy, cz, radius, radiusSq;
+
+    /**
+     * The current compiled geometry. Readers load this reference once per query and never lock;
+     * writers build a new snapshot and publish it with a single volatile write.
+     */
+    private volatile ProtectionSnapshot snapshot = ProtectionSnapshot.EMPTY;
+
+    /**
+     * The indexes of the loaded, protected worlds, derived from {@link #snapshot}. This is what
+     * the location checks read.
+     */
+    private volatile WorldTable worlds = WorldTable.EMPTY;
+
+    /**
+     * The public view of {@link #snapshot}, returned by {@link #getSnapshot()}.
+     */
+    private volatile SnapshotView view = SnapshotView.EMPTY;
+
+    /**
+     * Serializes writers so that concurrent updates cannot overwrite each other's snapshot.
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * The loaded worlds by name, guarded by {@link #writeLock}. Snapshots compiled on an async
+     * reload thread are bound through this map, since the server's own world map may only be
+     * read on the main thread, where worlds load and unload.
+     */
+    private final Map<String, World> loadedWorlds = new HashMap<>();
+
+    /**
+     * The decision memo of each thread. The thread-local is owned by this manager rather than
+     * kept in a static field, so that {@link #close()} can drop it: once it is unreachable, the
+     * threads' own maps release their memos and no longer pin the plugin's classes or the
+     * indexes of the last snapshot. It is {@code null} once the manager is closed.
+     */
+    private volatile ThreadLocal<DecisionMemo> memos = ThreadLocal.withInitial(this::createMemo);
+
+    /**
+     * A reusable location of each thread, which spawn checks read the creature's position into
+     * instead of creating a new {@link Location} for every spawn. Like {@link #memos}, it is
+     * dropped by {@link #close()} and {@code null} afterwards.
+     */
+    private volatile ThreadLocal<Location> scratchLocations = ThreadLocal.withInitial(() -> new Location(null, 0, 0, 0));
+
+    /**
+     * Every memo handed out by {@link #memos}, so that {@link #close()} can clear them on
+     * threads it cannot reach. Guarded by itself.
+     */
+    private final List<DecisionMemo> createdMemos = new ArrayList<>();
 
     /**
      * Constructs a new {@code ProtectionManager} and initializes its settings from the
-     * plugin's configuration.
+     * plugin's configuration. This must be called on the main thread, since it records the
+     * worlds that are already loaded.
      *
      * @param plugin The instance of the BetterSpawnProtect plugin.
      */
     public ProtectionManager(Plugin plugin) {
         this.plugin = plugin;
+        synchronized (writeLock) {
+            for (World world : Bukkit.getWorlds()) {
+                loadedWorlds.put(world.getName(), world);
+            }
+        }
         loadFromConfig();
     }
 
     /**
-     * Loads the protection settings from the {@link ConfigManager}. This includes the
-     * protected world, center coordinates, and radius. If the configuration manager
-     * is not initialized or the world is not found, appropriate warnings are logged.
+     * Loads the protection settings from the {@link ConfigManager}. This includes the main
+     * spawn region (world, center coordinates, radius and optional height limits) and any
+     * additional named regions.
+     * If the configuration manager is not initialized or the world is not found, appropriate
+     * warnings are logged.
      */
     private void loadFromConfig() {
         ConfigManager configManager = ConfigManager.getInstance();
@@ -44,100 +140,610 @@ public class ProtectionManager {
         }
 
         String worldName = configManager.getProtectionWorldName();
-        this.world = Bukkit.getWorld(worldName);
-        if (this.world == null) {
-            plugin.getLogger().log(Level.WARNING, "Protected world '" + worldName + "' not found or not loaded!");
+        boolean worldLoaded;
+        synchronized (writeLock) {
+            worldLoaded = loadedWorlds.containsKey(worldName);
+        }
+        if (!worldLoaded) {
+            plugin.getLogger().log(Level.WARNING, "Protected world '" + worldName + "' is not loaded yet; its protection applies once it loads.");
+        }
+
+        ProtectedRegion spawnRegion = new ProtectedRegion(
+                SPAWN_REGION,
+                worldName,
+                RegionShape.cylinder(
+                        configManager.getCenterX(),
+                        configManager.getCenterY(),
+                        configManager.getCenterZ(),
+                        configManager.getRadius(),
+                        configManager.getMinBlockY(),
+                        configManager.getMaxBlockY()
+                ),
+                configManager.getSpawnFlags()
+        );
+
+        Map<String, ProtectedRegion> byName = new LinkedHashMap<>();
+        byName.put(SPAWN_REGION, spawnRegion);
+        for (ProtectedRegion region : loadAdditionalRegions(configManager)) {
+            if (byName.putIfAbsent(region.getName(), region) != null) {
+                plugin.getLogger().log(Level.WARNING, "Duplicate region name '" + region.getName() + "' ignored.");
+            }
         }
 
-        this.cx = configManager.getCenterX();
-        this.cy = configManager.getCenterY();
-        this.cz = configManager.getCenterZ();
-        this.radius = configManager.getRadius();
-        this.radiusSq = radius * radius; // Pre-calculate the squared radius for efficiency
+        Map<String, Set<String>> spawnRules = configManager.getSpawnRules();
+        for (String name : spawnRules.keySet()) {
+            if (!byName.containsKey(name)) {
+                plugin.getLogger().log(Level.WARNING, "Ignoring spawn-control rules for unknown region '" + name + "'.");
+            }
+        }
+
+        synchronized (writeLock) {
+            publish(ProtectionSnapshot.compile(spawnRegion, new ArrayList<>(byName.values()), spawnRules, snapshot));
+        }
     }
 
     /**
-     * Reloads the protection settings from the configuration file. This is typically
-     * called when the plugin's reload command is executed.
+     * Loads the additional regions, from the binary region store if it is enabled, or from the
+     * {@code regions} section otherwise. A missing store is created from the {@code regions}
+     * section, and a store that cannot be read falls back to that section as well.
+     *
+     * @param configManager The configuration to read.
+     * @return The additional regions.
+     */
+    private List<ProtectedRegion> loadAdditionalRegions(ConfigManager configManager) {
+        if (!configManager.isBinaryRegionStoreEnabled()) {
+            return configManager.getAdditionalRegions();
+        }
+
+        Path store = configManager.getRegionStoreFile().toPath();
+        if (!Files.exists(store)) {
+            List<ProtectedRegion> regions = configManager.getAdditionalRegions();
+            try {
+                RegionStore.write(store, regions);
+                plugin.getLogger().info("Imported " + regions.size() + " regions from config.yml into " + store.getFileName() + ".");
+            } catch (IOException | IllegalArgumentException e) {
+                // A name too long for the store fails the import, not the reload
+                plugin.getLogger().log(Level.WARNING, "Could not create " + store.getFileName(), e);
+            }
+            return regions;
+        }
+
+        try {
+            return RegionStore.read(store);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not read " + store.getFileName() + "; using the regions section of config.yml instead.", e);
+            return configManager.getAdditionalRegions();
+        }
+    }
+
+    /**
+     * Replaces the binary region store with the {@code regions} section of {@code config.yml}.
+     * The new regions take effect on the next reload.
+     *
+     * @return The number of imported regions.
+     * @throws IOException If the store could not be written.
+     */
+    public int importRegionsFromConfig() throws IOException {
+        ConfigManager configManager = ConfigManager.getInstance();
+        List<ProtectedRegion> regions = configManager.getAdditionalRegions();
+        RegionStore.write(configManager.getRegionStoreFile().toPath(), regions);
+        return regions.size();
+    }
+
+    /**
+     * Exports the active additional regions, without the main spawn region, to a YAML file in
+     * the format of the {@code regions} section.
+     *
+     * @param file The file to write.
+     * @return The number of exported regions.
+     * @throws IOException If the file could not be written.
+     */
+    public int exportRegions(File file) throws IOException {
+        List<ProtectedRegion> regions = new ArrayList<>(snapshot.getRegions());
+        regions.removeIf(region -> region.getName().equals(SPAWN_REGION));
+        ConfigManager.getInstance().exportRegions(regions, file);
+        return regions.size();
+    }
+
+    /**
+     * Publishes a new snapshot and rebinds the loaded worlds to its indexes. Must be called
+     * while holding {@link #writeLock}. The worlds are taken from {@link #loadedWorlds}, so this
+     * is safe on any thread.
+     *
+     * @param newSnapshot The snapshot to publish.
+     */
+    private void publish(ProtectionSnapshot newSnapshot) {
+        snapshot = newSnapshot;
+        view = new SnapshotView(newSnapshot);
+        worlds = WorldTable.bind(newSnapshot, loadedWorlds::get);
+    }
+
+    /**
+     * Binds a world that has just been loaded, so that its regions, if any, are enforced.
+     *
+     * @param world The loaded world.
+     */
+    public void bindWorld(World world) {
+        synchronized (writeLock) {
+            loadedWorlds.put(world.getName(), world);
+            if (snapshot.indexOrNull(world.getName()) != null) {
+                worlds = worlds.with(world, snapshot);
+            }
+        }
+    }
+
+    /**
+     * Unbinds a world that is being unloaded, so the table does not keep it alive.
+     *
+     * @param world The world being unloaded.
+     */
+    public void unbindWorld(World world) {
+        synchronized (writeLock) {
+            loadedWorlds.remove(world.getName(), world);
+            worlds = worlds.without(world.getName());
+        }
+    }
+
+    /**
+     * Recompiles the protection settings from the active configuration and swaps them in
+     * atomically. This does not read the configuration file itself; callers apply a freshly
+     * parsed configuration to the {@link ConfigManager} first. It may be called from any thread,
+     * and queries keep using the previous regions until the new ones are published.
      */
     public void reloadFromConfig() {
-        ConfigManager.getInstance().reloadConfig();
         loadFromConfig();
     }
 
     /**
-     * Checks if a given location is within the protected spawn area. The check is performed
-     * in 2D (X and Z coordinates only) and is based on a circular radius.
+     * Checks if a given location is within any protected area, taking the shape and any
+     * vertical limits of each region into account.
      *
      * @param loc The location to check.
-     * @return {@code true} if the location is within the protected area, {@code false} otherwise.
+     * @return {@code true} if the location is within a protected area, {@code false} otherwise.
      */
     public boolean isProtected(Location loc) {
-        if (world == null || loc.getWorld() == null || !loc.getWorld().equals(world)) {
+        RegionIndex index = worlds.get(loc.getWorld());
+        return index != null && index.isProtected(loc.getX(), loc.getY(), loc.getZ());
+    }
+
+    /**
+     * Checks if the given block is within any protected area. Unlike
+     * {@link #isProtected(Location)}, this does not require a {@link Location} to be created
+     * for the block.
+     *
+     * @param block The block to check.
+     * @return {@code true} if the block is within a protected area, {@code false} otherwise.
+     */
+    public boolean isProtected(Block block) {
+        return isProtected(block.getWorld(), block.getX(), block.getY(), block.getZ());
+    }
+
+    /**
+     * Checks if the given block position is within any protected area. This is the
+     * allocation-free variant used by the event listeners.
+     *
+     * @param world The world of the block.
+     * @param x     The block X coordinate.
+     * @param y     The block Y coordinate.
+     * @param z     The block Z coordinate.
+     * @return {@code true} if the position is within a protected area, {@code false} otherwise.
+     */
+    @Override
+    public boolean isProtected(World world, int x, int y, int z) {
+        RegionIndex index = worlds.get(world);
+        return index != null && index.isProtected(x, y, z);
+    }
+
+    /**
+     * Checks if a given location is within a region that protects against the given category.
+     *
+     * @param loc  The location to check.
+     * @param flag The category of the action.
+     * @return {@code true} if the action is denied at the location, {@code false} otherwise.
+     */
+    public boolean isProtected(Location loc, RegionFlag flag) {
+        RegionIndex index = worlds.get(loc.getWorld());
+        return index != null && index.isProtected(loc.getX(), loc.getY(), loc.getZ(), flag.bit());
+    }
+
+    /**
+     * Checks if the given block is within a region that protects against the given category.
+     *
+     * @param block The block to check.
+     * @param flag  The category of the action.
+     * @return {@code true} if the action is denied at the block, {@code false} otherwise.
+     */
+    public boolean isProtected(Block block, RegionFlag flag) {
+        return isProtected(block.getWorld(), block.getX(), block.getY(), block.getZ(), flag);
+    }
+
+    /**
+     * Checks if the given block position is within a region that protects against the given
+     * category. The category is a single bit test against the regions found for the position.
+     *
+     * @param world The world of the block.
+     * @param x     The block X coordinate.
+     * @param y     The block Y coordinate.
+     * @param z     The block Z coordinate.
+     * @param flag  The category of the action.
+     * @return {@code true} if the action is denied at the position, {@code false} otherwise.
+     */
+    @Override
+    public boolean isProtected(World world, int x, int y, int z, RegionFlag flag) {
+        RegionIndex index = worlds.get(world);
+        return index != null && index.isProtected(x, y, z, flag.bit());
+    }
+
+    @Override
+    public void isProtected(World world, long[] positions, int count, BitSet result) {
+        isProtected(world, positions, count, RegionFlag.ANY_REGION, result);
+    }
+
+    @Override
+    public void isProtected(World world, long[] positions, int count, RegionFlag flag, BitSet result) {
+        isProtected(world, positions, count, flag.bit(), result);
+    }
+
+    private void isProtected(World world, long[] positions, int count, int mask, BitSet result) {
+        RegionIndex index = worlds.get(world);
+        if (index == null) {
+            result.clear(0, count);
+            return;
+        }
+        index.isProtected(positions, count, mask, result);
+    }
+
+    /**
+     * Checks if the given block is within a region that protects against the given category,
+     * answering repeated queries for the same position from a per-thread memo. Fluid flows and
+     * fire spread query the same positions many times within a tick, so their handlers use this
+     * variant.
+     *
+     * @param block The block to check.
+     * @param flag  The category of the change.
+     * @return {@code true} if the change is denied at the block, {@code false} otherwise.
+     */
+    public boolean isProtectedMemoized(Block block, RegionFlag flag) {
+        WorldTable table = worlds;
+        RegionIndex index = table.get(block.getWorld());
+        return index != null && isProtectedMemoized(table, index, block.getX(), block.getY(), block.getZ(), flag.bit());
+    }
+
+    /**
+     * Checks whether the given position is protected through the calling thread's memo, or
+     * directly once the manager is closed.
+     */
+    private boolean isProtectedMemoized(WorldTable table, RegionIndex index, int x, int y, int z, int mask) {
+        ThreadLocal<DecisionMemo> current = memos;
+        if (current == null) {
+            return index.isProtected(x, y, z, mask);
+        }
+        return current.get().prepare(table, System.nanoTime()).isProtected(index, x, y, z, mask);
+    }
+
+    /**
+     * Creates the memo of a thread and records it for {@link #close()}.
+     */
+    private DecisionMemo createMemo() {
+        DecisionMemo memo = new DecisionMemo();
+        synchronized (createdMemos) {
+            createdMemos.add(memo);
+        }
+        return memo;
+    }
+
+    /**
+     * Releases the per-thread decision memos and scratch locations. This should be called when the plugin is disabled,
+     * so that server and region threads, which outlive the plugin, keep neither its classes nor
+     * its regions reachable. Later memoized checks fall back to direct index queries.
+     */
+    public void close() {
+        memos = null;
+        scratchLocations = null;
+        synchronized (createdMemos) {
+            for (DecisionMemo memo : createdMemos) {
+                memo.clear();
+            }
+            createdMemos.clear();
+        }
+    }
+
+    /**
+     * Checks whether moving items between two containers crosses the boundary of the protection
+     * against the given category, that is, whether exactly one of the two containers is
+     * protected. Transfers within protected regions, and transfers outside of them, are allowed.
+     * <p>
+     * This runs for every hopper transfer, so it is answered from the chunk classification
+     * wherever possible. Only a container in a chunk on a region boundary is tested at its exact
+     * position, through the per-thread memo, since hoppers query the same positions every few
+     * ticks. The check itself allocates nothing once the memo exists; resolving the positions
+     * of the containers is up to the caller.
+     *
+     * @param world   The world of both containers.
+     * @param sourceX The block X coordinate of the container the items are taken from.
+     * @param sourceY The block Y coordinate of the container the items are taken from.
+     * @param sourceZ The block Z coordinate of the container the items are taken from.
+     * @param targetX The block X coordinate of the container the items are moved into.
+     * @param targetY The block Y coordinate of the container the items are moved into.
+     * @param targetZ The block Z coordinate of the container the items are moved into.
+     * @param flag    The category of the transfer.
+     * @return {@code true} if the transfer is denied, {@code false} otherwise.
+     */
+    public boolean isTransferDenied(World world, int sourceX, int sourceY, int sourceZ,
+                                    int targetX, int targetY, int targetZ, RegionFlag flag) {
+        WorldTable table = worlds;
+        RegionIndex index = table.get(world);
+        if (index == null) {
             return false;
         }
-        double dx = loc.getX() - cx;
-        double dz = loc.getZ() - cz;
-        return (dx * dx + dz * dz) <= radiusSq;
+        int mask = flag.bit();
+        ChunkClassification source = index.classifyChunk(sourceX >> 4, sourceZ >> 4, mask);
+        ChunkClassification target = (sourceX >> 4) == (targetX >> 4) && (sourceZ >> 4) == (targetZ >> 4)
+                ? source
+                : index.classifyChunk(targetX >> 4, targetZ >> 4, mask);
+        if (source != ChunkClassification.BOUNDARY && target != ChunkClassification.BOUNDARY) {
+            return source != target;
+        }
+
+        boolean sourceProtected = source == ChunkClassification.BOUNDARY
+                ? isProtectedMemoized(table, index, sourceX, sourceY, sourceZ, mask)
+                : source == ChunkClassification.INSIDE;
+        boolean targetProtected = target == ChunkClassification.BOUNDARY
+                ? isProtectedMemoized(table, index, targetX, targetY, targetZ, mask)
+                : target == ChunkClassification.INSIDE;
+        return sourceProtected != targetProtected;
     }
 
     /**
-     * Sets the center of the protected area to a new location and saves the updated
+     * Checks whether at least one region protects against the given category.
+     *
+     * @param flag The category to check.
+     * @return {@code true} if any region protects against the category, {@code false} otherwise.
+     */
+    public boolean anyProtects(RegionFlag flag) {
+        return snapshot.anyProtects(flag);
+    }
+
+    /**
+     * Checks whether the spawn of the given creature is denied by a spawn-control rule. Spawns
+     * in worlds without rules, or for reasons that no region denies, are accepted after a single
+     * table lookup, before the location of the creature is even read. Otherwise the chunk of the
+     * spawn is classified against the regions denying it, and only spawns in chunks on a region
+     * boundary test the exact position. The position is read into a reused per-thread
+     * {@link Location}, so evaluating a rule does not create one per spawn.
+     *
+     * @param entity The spawning creature. Creatures implementing {@link Enemy} count as hostile.
+     * @param reason The reason of the spawn.
+     * @return {@code true} if the spawn is denied, {@code false} otherwise.
+     */
+    public boolean isSpawnDenied(Entity entity, SpawnReason reason) {
+        RegionIndex index = worlds.getSpawnIndex(entity.getWorld(), reason, entity instanceof Enemy);
+        if (index == null) {
+            return false;
+        }
+        ThreadLocal<Location> scratch = scratchLocations;
+        Location loc = scratch == null ? entity.getLocation() : entity.getLocation(scratch.get());
+        return switch (index.classifyChunk(loc.getBlockX() >> 4, loc.getBlockZ() >> 4)) {
+            case INSIDE -> true;
+            case OUTSIDE -> false;
+            case BOUNDARY -> index.isProtected(loc.getX(), loc.getY(), loc.getZ());
+        };
+    }
+
+    /**
+     * Checks whether any spawn-control rule is configured.
+     *
+     * @return {@code true} if some region denies some spawns, {@code false} otherwise.
+     */
+    public boolean hasSpawnRules() {
+        return snapshot.hasSpawnRules();
+    }
+
+    /**
+     * Returns the region index bound to the given world. High-frequency listeners use this to
+     * reject events in unprotected worlds before reading any block coordinates.
+     *
+     * @param world The world, which may be {@code null}.
+     * @return The index of the world, or {@code null} if the world has no regions or is not loaded.
+     */
+    public RegionIndex getIndex(World world) {
+        return worlds.get(world);
+    }
+
+    /**
+     * Removes every block protected against explosions from the given list, as used for
+     * explosion block lists.
+     * The bounding box of the blocks is classified once: if it lies entirely outside all
+     * regions the list is left untouched, and if it lies entirely inside the list is cleared.
+     * Only explosions straddling a region boundary fall back to checking each block.
+     *
+     * @param blocks The mutable list of blocks to filter. All blocks must share one world.
+     */
+    public void removeProtected(List<Block> blocks) {
+        if (blocks.isEmpty()) {
+            return;
+        }
+        RegionIndex index = worlds.get(blocks.get(0).getWorld());
+        if (index == null) {
+            return;
+        }
+
+        index.removeProtected(blocks, Block::getX, Block::getY, Block::getZ, RegionFlag.EXPLOSIONS.bit());
+    }
+
+    /**
+     * Checks whether a piston move touches a block protected against pistons. This covers every moved block at
+     * its source and its destination, as well as the block of the piston head. The bounding box
+     * of all these positions is classified once; only moves straddling a region boundary fall
+     * back to checking each position.
+     *
+     * @param piston    The piston block.
+     * @param direction The direction the blocks move in.
+     * @param moved     The blocks being moved, which may be empty.
+     * @param extending {@code true} if the piston extends, {@code false} if it retracts.
+     * @return {@code true} if any of the positions is protected, {@code false} otherwise.
+     */
+    public boolean isPistonMoveProtected(Block piston, BlockFace direction, List<Block> moved, boolean extending) {
+        RegionIndex index = worlds.get(piston.getWorld());
+        if (index == null) {
+            return false;
+        }
+
+        int dx = direction.getModX();
+        int dy = direction.getModY();
+        int dz = direction.getModZ();
+        // The head sits in front of the piston: in the move direction when extending, behind it when retracting
+        int sign = extending ? 1 : -1;
+        int headX = piston.getX() + sign * dx;
+        int headY = piston.getY() + sign * dy;
+        int headZ = piston.getZ() + sign * dz;
+
+        int minX = headX, minY = headY, minZ = headZ;
+        int maxX = headX, maxY = headY, maxZ = headZ;
+        for (int i = 0, size = moved.size(); i < size; i++) {
+            Block block = moved.get(i);
+            minX = Math.min(minX, block.getX());
+            maxX = Math.max(maxX, block.getX());
+            minY = Math.min(minY, block.getY());
+            maxY = Math.max(maxY, block.getY());
+            minZ = Math.min(minZ, block.getZ());
+            maxZ = Math.max(maxZ, block.getZ());
+        }
+        if (!moved.isEmpty()) {
+            // Every destination is its source shifted by one, so widening the source box covers them all
+            minX = Math.min(minX, minX + dx);
+            maxX = Math.max(maxX, maxX + dx);
+            minY = Math.min(minY, minY + dy);
+            maxY = Math.max(maxY, maxY + dy);
+            minZ = Math.min(minZ, minZ + dz);
+            maxZ = Math.max(maxZ, maxZ + dz);
+        }
+
+        int mask = RegionFlag.PISTONS.bit();
+        ChunkClassification classification = index.classifyArea(minX, minY, minZ, maxX, maxY, maxZ, mask);
+        if (classification != ChunkClassification.BOUNDARY) {
+            return classification == ChunkClassification.INSIDE;
+        }
+
+        if (index.isProtected(headX, headY, headZ, mask)) {
+            return true;
+        }
+        for (int i = 0, size = moved.size(); i < size; i++) {
+            Block block = moved.get(i);
+            int x = block.getX();
+            int y = block.getY();
+            int z = block.getZ();
+            if (index.isProtected(x, y, z, mask) || index.isProtected(x + dx, y + dy, z + dz, mask)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sets the center of the main spawn region to a new location and saves the updated
      * settings to the configuration.
      *
      * @param newCenter The new center location for the protected area.
      */
     public void setCenter(Location newCenter) {
-        this.world = newCenter.getWorld();
-        this.cx = newCenter.getX();
-        this.cy = newCenter.getY();
-        this.cz = newCenter.getZ();
+        World newWorld = newCenter.getWorld();
+        ProtectedRegion spawnRegion;
+        synchronized (writeLock) {
+            ProtectionSnapshot current = snapshot;
+            spawnRegion = current.getSpawnRegion().withCenter(newWorld.getName(), newCenter.getX(), newCenter.getY(), newCenter.getZ());
+            publish(current.withSpawnRegion(spawnRegion));
+        }
 
         ConfigManager configManager = ConfigManager.getInstance();
-        configManager.setProtectionWorld(world);
-        configManager.setCenter(cx, cy, cz);
+        configManager.setProtectionWorld(newWorld);
+        configManager.setCenter(spawnRegion.getCenterX(), spawnRegion.getCenterY(), spawnRegion.getCenterZ());
     }
 
     /**
-     * Sets the radius of the protected area and saves the updated value to the configuration.
+     * Sets the radius of the main spawn region and saves the updated value to the configuration.
      *
      * @param r The new radius. Must be a non-negative value.
      */
     public void setRadius(double r) {
-        this.radius = Math.max(0, r);
-        this.radiusSq = radius * radius;
-        ConfigManager.getInstance().setRadius(radius);
+        ProtectedRegion spawnRegion;
+        synchronized (writeLock) {
+            ProtectionSnapshot current = snapshot;
+            spawnRegion = current.getSpawnRegion().withRadius(r);
+            publish(current.withSpawnRegion(spawnRegion));
+        }
+        ConfigManager.getInstance().setRadius(spawnRegion.getRadius());
     }
 
     /**
      * Provides a formatted string summarizing the current protection settings, including
-     * the world name, center coordinates, and radius.
+     * the world name, center coordinates and radius of the spawn region, the number of
+     * configured regions, and how many of the protected worlds are loaded.
      *
      * @return A summary string of the protection settings.
      */
     public String getCenterSummary() {
-        if (world == null) {
+        ProtectionSnapshot current = snapshot;
+        ProtectedRegion spawnRegion = current.getSpawnRegion();
+        if (spawnRegion == null || Bukkit.getWorld(spawnRegion.getWorldName()) == null) {
             return "Protected world is not loaded!";
         }
-        return String.format("Center: %s (%.2f, %.2f, %.2f), Radius: %.2f",
-                world.getName(), cx, cy, cz, radius);
+        return String.format("Center: %s (%.2f, %.2f, %.2f), Radius: %.2f, Regions: %d, Protected worlds loaded: %d/%d",
+                spawnRegion.getWorldName(), spawnRegion.getCenterX(), spawnRegion.getCenterY(), spawnRegion.getCenterZ(),
+                spawnRegion.getRadius(), current.getRegions().size(), worlds.size(), current.getWorldNames().size());
+    }
+
+    /**
+     * Classifies the given chunk against the protected regions of its world. Callers can use
+     * this to skip per-block checks entirely for chunks that are fully inside or outside.
+     *
+     * @param world  The world containing the chunk.
+     * @param chunkX The chunk X coordinate.
+     * @param chunkZ The chunk Z coordinate.
+     * @return The classification of the chunk.
+     */
+    public ChunkClassification classifyChunk(World world, int chunkX, int chunkZ) {
+        RegionIndex index = worlds.get(world);
+        return index == null ? ChunkClassification.OUTSIDE : index.classifyChunk(chunkX, chunkZ);
     }
 
     /**
-     * Returns the world where the protection is applied.
+     * Returns the world where the main spawn protection is applied.
      *
      * @return The protected {@link World}.
      */
     public World getWorld() {
-        return world;
+        ProtectedRegion spawnRegion = snapshot.getSpawnRegion();
+        return spawnRegion == null ? null : Bukkit.getWorld(spawnRegion.getWorldName());
     }
 
     /**
-     * Returns the radius of the protected area.
+     * Returns the radius of the main spawn region.
      *
      * @return The protection radius.
      */
     public double getRadius() {
-        return radius;
+        ProtectedRegion spawnRegion = snapshot.getSpawnRegion();
+        return spawnRegion == null ? 0 : spawnRegion.getRadius();
+    }
+
+    /**
+     * Returns all protected regions, starting with the main spawn region.
+     *
+     * @return An unmodifiable list of the protected regions.
+     */
+    public List<ProtectedRegion> getRegions() {
+        return snapshot.getRegions();
+    }
+
+    /**
+     * Returns a read-only view of the current protection snapshot. The returned view stays
+     * consistent even if the protection settings change afterwards.
+     *
+     * @return The current region view.
+     */
+    @Override
+    public RegionSnapshot getSnapshot() {
+        return view;
     }
-}
\ No newline at end of file
+}
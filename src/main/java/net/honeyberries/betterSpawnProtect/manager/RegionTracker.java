@@ -0,0 +1,267 @@
+package net.honeyberries.betterSpawnProtect.manager;
+
+import net.honeyberries.betterSpawnProtect.event.RegionEnterEvent;
+import net.honeyberries.betterSpawnProtect.event.RegionLeaveEvent;
+import net.honeyberries.betterSpawnProtect.metrics.EventMetric;
+import net.honeyberries.betterSpawnProtect.metrics.Metrics;
+import net.honeyberries.betterSpawnProtect.metrics.Outcome;
+import net.honeyberries.betterSpawnProtect.region.ProtectedRegion;
+import net.honeyberries.betterSpawnProtect.region.RegionIndex;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which protected regions every online player stands in, and fires a
+ * {@link RegionEnterEvent} or {@link RegionLeaveEvent} whenever that set changes. This gives
+ * the whole server a single tracker, so that other plugins and the gamemode handling react to
+ * transitions instead of polling player positions.
+ * <p>
+ * Each player has a small state holding their last block position and the regions found
+ * there. A position update within the same block returns after comparing four fields, and a
+ * player outside every region is tracked without allocating anything. Regions are compared by
+ * name and world, so reloading an unchanged region does not fire any events.
+ * <p>
+ * All updates of a player run on that player's own region thread, so their state needs no
+ * locking. The regions of a player may be read from any thread.
+ */
+public class RegionTracker {
+
+    private static final ProtectedRegion[] NO_REGIONS = new ProtectedRegion[0];
+
+    private final Plugin plugin;
+    private final ProtectionManager protectionManager;
+    private final Metrics metrics;
+    private final Map<UUID, PlayerState> states = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new {@code RegionTracker} without any tracked players.
+     *
+     * @param plugin            The main plugin instance.
+     * @param protectionManager The manager for the protected area.
+     * @param metrics           The metrics to report updates to.
+     */
+    public RegionTracker(Plugin plugin, ProtectionManager protectionManager, Metrics metrics) {
+        this.plugin = plugin;
+        this.protectionManager = protectionManager;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Handles a player moving to the given location. Nothing is evaluated if the player is
+     * still on the block of their last update.
+     *
+     * @param player The player who moved.
+     * @param to     The location the player moved to.
+     */
+    public void update(Player player, Location to) {
+        PlayerState state = states.computeIfAbsent(player.getUniqueId(), uuid -> new PlayerState());
+        if (state.isAt(to.getWorld(), to.getBlockX(), to.getBlockY(), to.getBlockZ())) {
+            return;
+        }
+        track(player, state, to);
+    }
+
+    /**
+     * Re-evaluates the regions of the player at their current location, even if they have not
+     * moved since the last update. This is used after the regions themselves have changed.
+     *
+     * @param player The player to re-evaluate.
+     */
+    public void refresh(Player player) {
+        track(player, states.computeIfAbsent(player.getUniqueId(), uuid -> new PlayerState()), player.getLocation());
+    }
+
+    /**
+     * Schedules a re-evaluation of the player on their entity scheduler. This is used after
+     * teleports, respawns and joins, where the player's position is only final once the event
+     * has completed.
+     *
+     * @param player The player to re-evaluate.
+     */
+    public void scheduleRefresh(Player player) {
+        player.getScheduler().run(plugin, scheduledTask -> refresh(player), null);
+    }
+
+    /**
+     * Schedules a re-evaluation of every online player on their own entity scheduler.
+     */
+    public void refreshAll() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            scheduleRefresh(player);
+        }
+    }
+
+    /**
+     * Returns the regions the player stood in at their last update.
+     *
+     * @param uuid The UUID of the player.
+     * @return An unmodifiable list of the regions, empty if the player is outside every region
+     * or not tracked.
+     */
+    public List<ProtectedRegion> getRegions(UUID uuid) {
+        PlayerState state = states.get(uuid);
+        return state == null ? List.of() : List.of(state.regions);
+    }
+
+    /**
+     * Checks whether the player stood in a region protecting against any of the given flags at
+     * their last update. Regions allowing all of them are ignored.
+     *
+     * @param uuid The UUID of the player.
+     * @param mask The bits of the {@link net.honeyberries.betterSpawnProtect.region.RegionFlag}s to check.
+     * @return {@code true} if the player is inside such a region, {@code false} otherwise.
+     */
+    public boolean isInside(UUID uuid, int mask) {
+        PlayerState state = states.get(uuid);
+        return state != null && state.isInside(mask);
+    }
+
+    /**
+     * Forgets the tracked state of a player, typically when they leave the server. No leave
+     * events are fired.
+     *
+     * @param uuid The UUID of the player.
+     */
+    public void forget(UUID uuid) {
+        states.remove(uuid);
+    }
+
+    /**
+     * Forgets all tracked players. This should be called when the plugin is disabled.
+     */
+    public void clear() {
+        states.clear();
+    }
+
+    /**
+     * Evaluates the regions at the given location and fires the events for every region the
+     * player left or entered, leaves first.
+     *
+     * @param player The player.
+     * @param state  The tracked state of the player.
+     * @param loc    The player's location.
+     */
+    private void track(Player player, PlayerState state, Location loc) {
+        long start = metrics.startTimer();
+        World world = loc.getWorld();
+        ProtectedRegion[] previous = state.moveTo(world, protectionManager.getIndex(world), loc.getX(), loc.getY(), loc.getZ());
+        ProtectedRegion[] current = state.regions;
+        if (previous.length == 0 && current.length == 0) {
+            metrics.record(EventMetric.REGION_TRACK, start, Outcome.ALLOWED);
+            return;
+        }
+
+        for (ProtectedRegion region : previous) {
+            if (!containsSame(current, region)) {
+                Bukkit.getPluginManager().callEvent(new RegionLeaveEvent(player, region));
+            }
+        }
+        for (ProtectedRegion region : current) {
+            if (!containsSame(previous, region)) {
+                Bukkit.getPluginManager().callEvent(new RegionEnterEvent(player, region));
+            }
+        }
+        metrics.record(EventMetric.REGION_TRACK, start, Outcome.ALLOWED);
+    }
+
+    /**
+     * Checks whether the given regions contain one with the same name and world as the given
+     * region. This is how the tracker decides which regions a player left or entered.
+     *
+     * @param regions The regions to search.
+     * @param region  The region to look for.
+     * @return {@code true} if a region with the same name and world is present, {@code false} otherwise.
+     */
+    public static boolean containsSame(ProtectedRegion[] regions, ProtectedRegion region) {
+        for (ProtectedRegion candidate : regions) {
+            if (candidate.getName().equals(region.getName()) && candidate.getWorldName().equals(region.getWorldName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The tracked state of a single player: their last block position and the regions found
+     * there. It does not depend on a running server, so the benchmarks drive it directly.
+     */
+    public static final class PlayerState {
+
+        private World world;
+        private int blockX;
+        private int blockY;
+        private int blockZ;
+
+        /**
+         * The regions at the last evaluated position. Written only by the player's own thread,
+         * but read from any thread.
+         */
+        private volatile ProtectedRegion[] regions = NO_REGIONS;
+
+        /**
+         * Checks whether the state was last evaluated on the given block.
+         *
+         * @param world  The world of the block.
+         * @param blockX The block X coordinate.
+         * @param blockY The block Y coordinate.
+         * @param blockZ The block Z coordinate.
+         * @return {@code true} if the block is unchanged, {@code false} otherwise.
+         */
+        public boolean isAt(World world, int blockX, int blockY, int blockZ) {
+            return this.world == world && this.blockX == blockX && this.blockY == blockY && this.blockZ == blockZ;
+        }
+
+        /**
+         * Moves the state to the given position and looks up the regions there.
+         *
+         * @param world The world of the position.
+         * @param index The index of the world, or {@code null} if it has no regions.
+         * @param x     The X coordinate.
+         * @param y     The Y coordinate.
+         * @param z     The Z coordinate.
+         * @return The regions at the previous position.
+         */
+        public ProtectedRegion[] moveTo(World world, RegionIndex index, double x, double y, double z) {
+            this.world = world;
+            this.blockX = (int) Math.floor(x);
+            this.blockY = (int) Math.floor(y);
+            this.blockZ = (int) Math.floor(z);
+            ProtectedRegion[] previous = regions;
+            regions = index == null ? NO_REGIONS : index.regionsAt(x, y, z);
+            return previous;
+        }
+
+        /**
+         * Checks whether a region at the last evaluated position protects against any of the
+         * given flags.
+         *
+         * @param mask The bits of the flags to check.
+         * @return {@code true} if such a region was found, {@code false} otherwise.
+         */
+        public boolean isInside(int mask) {
+            for (ProtectedRegion region : regions) {
+                if ((region.getFlags() & mask) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns the regions at the last evaluated position.
+         *
+         * @return The regions, which must not be modified. Empty if outside every region.
+         */
+        public ProtectedRegion[] getRegions() {
+            return regions;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package net.honeyberries.betterSpawnProtect.manager;
+
+import net.honeyberries.betterSpawnProtect.api.RegionSnapshot;
+import net.honeyberries.betterSpawnProtect.region.ProtectedRegion;
+import net.honeyberries.betterSpawnProtect.region.ProtectionSnapshot;
+import net.honeyberries.betterSpawnProtect.region.RegionFlag;
+import org.bukkit.World;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The public {@link RegionSnapshot} view of a {@link ProtectionSnapshot}. It only forwards the
+ * read-only queries, so that the compiled snapshot and its indexes stay internal and can
+ * change without breaking other plugins. A view is created once per published snapshot.
+ */
+final class SnapshotView implements RegionSnapshot {
+
+    static final SnapshotView EMPTY = new SnapshotView(ProtectionSnapshot.EMPTY);
+
+    private final ProtectionSnapshot snapshot;
+    private final Map<String, ProtectedRegion> byName;
+
+    SnapshotView(ProtectionSnapshot snapshot) {
+        this.snapshot = snapshot;
+        List<ProtectedRegion> regions = snapshot.getRegions();
+        this.byName = new HashMap<>(regions.size() * 2);
+        for (ProtectedRegion region : regions) {
+            byName.putIfAbsent(region.getName(), region);
+        }
+    }
+
+    @Override
+    public List<ProtectedRegion> getRegions() {
+        return snapshot.getRegions();
+    }
+
+    @Override
+    public ProtectedRegion getRegion(String name) {
+        return byName.get(name);
+    }
+
+    @Override
+    public boolean isProtected(World world, int x, int y, int z) {
+        return snapshot.isProtected(world.getName(), x, y, z);
+    }
+
+    @Override
+    public boolean isProtected(World world, int x, int y, int z, RegionFlag flag) {
+        return snapshot.isProtected(world.getName(), x, y, z, flag.bit());
+    }
+}
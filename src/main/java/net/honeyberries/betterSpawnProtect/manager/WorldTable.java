@@ -0,0 +1,180 @@
+package net.honeyberries.betterSpawnProtect.manager;
+
+import net.honeyberries.betterSpawnProtect.region.ProtectionSnapshot;
+import net.honeyberries.betterSpawnProtect.region.RegionIndex;
+import org.bukkit.World;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * An immutable table from loaded {@link World} instances to the {@link RegionIndex} of their
+ * regions. Only worlds that are both loaded and protected are bound, so the table usually
+ * holds a handful of entries and a lookup is a short scan of identity comparisons. Events in
+ * an unprotected world never compare world names or hash anything.
+ * <p>
+ * A {@code World} instance lives exactly as long as the world stays loaded, so binding by
+ * identity is equivalent to binding by world UID for the lifetime of an entry. Worlds are bound
+ * when they load and unbound when they unload, which also keeps the table from holding on to
+ * unloaded worlds.
+ * <p>
+ * Every bound world also carries its spawn-control indexes in an array indexed by spawn reason
+ * and creature category, so a creature spawn finds the regions denying it without building a
+ * key or hashing anything. Worlds without spawn-control rules have no such array at all.
+ */
+final class WorldTable {
+
+    /**
+     * A table without any bound worlds.
+     */
+    static final WorldTable EMPTY = new WorldTable(new World[0], new RegionIndex[0], new RegionIndex[0][]);
+
+    private static final SpawnReason[] SPAWN_REASONS = SpawnReason.values();
+
+    private final World[] worlds;
+    private final RegionIndex[] indexes;
+    private final RegionIndex[][] spawnIndexes;
+
+    private WorldTable(World[] worlds, RegionIndex[] indexes, RegionIndex[][] spawnIndexes) {
+        this.worlds = worlds;
+        this.indexes = indexes;
+        this.spawnIndexes = spawnIndexes;
+    }
+
+    /**
+     * Builds a table binding every protected world of the snapshot that is currently loaded.
+     *
+     * @param snapshot The snapshot providing the indexes.
+     * @param resolver Resolves a world name to the loaded world, or {@code null} if it is not loaded.
+     * @return The new table.
+     */
+    static WorldTable bind(ProtectionSnapshot snapshot, Function<String, World> resolver) {
+        WorldTable table = EMPTY;
+        for (String worldName : snapshot.getWorldNames()) {
+            World world = resolver.apply(worldName);
+            if (world != null) {
+                table = table.with(world, snapshot);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Returns the index of the given world.
+     *
+     * @param world The world, which may be {@code null}.
+     * @return The index of the world, or {@code null} if the world is not protected or not bound.
+     */
+    RegionIndex get(World world) {
+        World[] worlds = this.worlds;
+        for (int i = 0; i < worlds.length; i++) {
+            if (worlds[i] == world) {
+                return indexes[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the index of the regions in the given world that deny a creature spawn.
+     *
+     * @param world   The world, which may be {@code null}.
+     * @param reason  The reason of the spawn.
+     * @param hostile Whether the creature is hostile.
+     * @return The index, or {@code null} if no region of the world denies such spawns.
+     */
+    RegionIndex getSpawnIndex(World world, SpawnReason reason, boolean hostile) {
+        World[] worlds = this.worlds;
+        for (int i = 0; i < worlds.length; i++) {
+            if (worlds[i] == world) {
+                RegionIndex[] byReason = spawnIndexes[i];
+                return byReason == null ? null : byReason[spawnSlot(reason, hostile)];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a copy of this table with the given world bound to its indexes in the snapshot.
+     * An existing entry for the same world, or for an older instance of a world with the same
+     * name, is replaced.
+     *
+     * @param world    The world to bind.
+     * @param snapshot The snapshot providing the indexes of the world.
+     * @return The updated table.
+     */
+    WorldTable with(World world, ProtectionSnapshot snapshot) {
+        WorldTable without = without(world.getName());
+        World[] newWorlds = Arrays.copyOf(without.worlds, without.worlds.length + 1);
+        RegionIndex[] newIndexes = Arrays.copyOf(without.indexes, without.indexes.length + 1);
+        RegionIndex[][] newSpawnIndexes = Arrays.copyOf(without.spawnIndexes, without.spawnIndexes.length + 1);
+        newWorlds[newWorlds.length - 1] = world;
+        newIndexes[newIndexes.length - 1] = snapshot.index(world.getName());
+        newSpawnIndexes[newSpawnIndexes.length - 1] = spawnIndexes(snapshot, world.getName());
+        return new WorldTable(newWorlds, newIndexes, newSpawnIndexes);
+    }
+
+    /**
+     * Collects the spawn-control indexes of a world into an array by spawn slot.
+     *
+     * @param snapshot  The snapshot providing the indexes.
+     * @param worldName The name of the world.
+     * @return The indexes by {@link #spawnSlot(SpawnReason, boolean)}, or {@code null} if no
+     * region of the world denies any spawns.
+     */
+    private static RegionIndex[] spawnIndexes(ProtectionSnapshot snapshot, String worldName) {
+        if (!snapshot.hasSpawnRules()) {
+            return null;
+        }
+        RegionIndex[] byReason = new RegionIndex[SPAWN_REASONS.length * 2];
+        boolean any = false;
+        for (SpawnReason reason : SPAWN_REASONS) {
+            String name = reason.name().toLowerCase(Locale.ROOT);
+            for (boolean hostile : new boolean[]{false, true}) {
+                RegionIndex index = snapshot.spawnIndexOrNull(worldName, ProtectionSnapshot.spawnKey(hostile, name));
+                byReason[spawnSlot(reason, hostile)] = index;
+                any |= index != null;
+            }
+        }
+        return any ? byReason : null;
+    }
+
+    private static int spawnSlot(SpawnReason reason, boolean hostile) {
+        return reason.ordinal() << 1 | (hostile ? 1 : 0);
+    }
+
+    /**
+     * Returns a copy of this table without the world of the given name.
+     *
+     * @param worldName The name of the world to unbind.
+     * @return The updated table, or this table if the world was not bound.
+     */
+    WorldTable without(String worldName) {
+        for (int i = 0; i < worlds.length; i++) {
+            if (worlds[i].getName().equals(worldName)) {
+                World[] newWorlds = new World[worlds.length - 1];
+                RegionIndex[] newIndexes = new RegionIndex[indexes.length - 1];
+                RegionIndex[][] newSpawnIndexes = new RegionIndex[spawnIndexes.length - 1][];
+                System.arraycopy(worlds, 0, newWorlds, 0, i);
+                System.arraycopy(worlds, i + 1, newWorlds, i, worlds.length - i - 1);
+                System.arraycopy(indexes, 0, newIndexes, 0, i);
+                System.arraycopy(indexes, i + 1, newIndexes, i, indexes.length - i - 1);
+                System.arraycopy(spawnIndexes, 0, newSpawnIndexes, 0, i);
+                System.arraycopy(spawnIndexes, i + 1, newSpawnIndexes, i, spawnIndexes.length - i - 1);
+                return new WorldTable(newWorlds, newIndexes, newSpawnIndexes);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Returns the number of bound worlds.
+     *
+     * @return The number of bound worlds.
+     */
+    int size() {
+        return worlds.length;
+    }
+}
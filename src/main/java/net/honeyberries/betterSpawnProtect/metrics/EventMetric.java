@@ -0,0 +1,48 @@
+package net.honeyberries.betterSpawnProtect.metrics;
+
+import java.util.Locale;
+
+/**
+ * The instrumented code paths. Each protection event handler has its own entry, as do the
+ * region tracker and the two gamemode code paths, so their cost can be told apart.
+ */
+public enum EventMetric {
+    BLOCK_BREAK,
+    BLOCK_PLACE,
+    BUCKET_EMPTY,
+    BUCKET_FILL,
+    PLAYER_INTERACT,
+    ARMOR_STAND_MANIPULATE,
+    PISTON_EXTEND,
+    PISTON_RETRACT,
+    HANGING_BREAK,
+    ENTITY_CHANGE_BLOCK,
+    ENTITY_EXPLODE,
+    BLOCK_EXPLODE,
+    IGNITE,
+    BURN,
+    SPREAD,
+    STRUCTURE_GROW,
+    BLOCK_FORM,
+    BLOCK_FADE,
+    BLOCK_FROM_TO,
+    BLOCK_FERTILIZE,
+    ENTITY_DAMAGE_BY_ENTITY,
+    INVENTORY_MOVE_ITEM,
+    INVENTORY_PICKUP_ITEM,
+    CREATURE_SPAWN,
+    REGION_TRACK,
+    GAMEMODE_MOVE,
+    GAMEMODE_REFRESH;
+
+    private final String label = name().toLowerCase(Locale.ROOT);
+
+    /**
+     * Returns the name used for this metric in command output and in the Prometheus export.
+     *
+     * @return The lower-case label, such as {@code block_break}.
+     */
+    public String label() {
+        return label;
+    }
+}
@@ -0,0 +1,95 @@
+package net.honeyberries.betterSpawnProtect.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counters and latency histogram of a single {@link EventMetric}.
+ */
+public final class EventStats {
+
+    private final EventMetric metric;
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder denied = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * Constructs empty statistics for the given metric.
+     *
+     * @param metric The metric these statistics belong to.
+     */
+    EventStats(EventMetric metric) {
+        this.metric = metric;
+    }
+
+    /**
+     * Records a single check.
+     *
+     * @param outcome The result of the check.
+     * @param nanos   The time the check took, in nanoseconds.
+     */
+    void record(Outcome outcome, long nanos) {
+        checks.increment();
+        if (outcome == Outcome.DENIED) {
+            denied.increment();
+        } else if (outcome == Outcome.BYPASSED) {
+            bypassed.increment();
+        }
+        latency.record(nanos);
+    }
+
+    /**
+     * Resets all counters and the histogram.
+     */
+    void reset() {
+        checks.reset();
+        denied.reset();
+        bypassed.reset();
+        latency.reset();
+    }
+
+    /**
+     * Returns the metric these statistics belong to.
+     *
+     * @return The metric.
+     */
+    public EventMetric getMetric() {
+        return metric;
+    }
+
+    /**
+     * Returns the number of checks.
+     *
+     * @return The number of checks.
+     */
+    public long getChecks() {
+        return checks.sum();
+    }
+
+    /**
+     * Returns the number of checks that denied the action.
+     *
+     * @return The number of denials.
+     */
+    public long getDenied() {
+        return denied.sum();
+    }
+
+    /**
+     * Returns the number of checks skipped because the player could bypass protection.
+     *
+     * @return The number of bypasses.
+     */
+    public long getBypassed() {
+        return bypassed.sum();
+    }
+
+    /**
+     * Returns the latency histogram.
+     *
+     * @return The histogram.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
@@ -0,0 +1,112 @@
+package net.honeyberries.betterSpawnProtect.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A latency histogram with fixed bucket bounds. Every bucket is a {@link LongAdder}, so
+ * recording from several region threads at once does not contend on a single counter and
+ * never allocates once the adders have settled.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The inclusive upper bounds of the buckets in nanoseconds, from 1 microsecond to
+     * 10 milliseconds. A final, implicit bucket holds everything slower.
+     */
+    static final long[] BOUNDS_NANOS = {
+            1_000L, 2_500L, 5_000L, 10_000L, 25_000L, 50_000L, 100_000L, 250_000L,
+            500_000L, 1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L
+    };
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_NANOS.length + 1];
+    private final LongAdder sumNanos = new LongAdder();
+
+    /**
+     * Constructs an empty histogram.
+     */
+    LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a single duration.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    void record(long nanos) {
+        int bucket = 0;
+        while (bucket < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * Returns the number of durations in the given bucket. Bucket
+     * {@code BOUNDS_NANOS.length} is the overflow bucket.
+     *
+     * @param bucket The index of the bucket.
+     * @return The number of durations recorded in the bucket.
+     */
+    long bucketCount(int bucket) {
+        return buckets[bucket].sum();
+    }
+
+    /**
+     * Returns the total number of recorded durations.
+     *
+     * @return The number of durations.
+     */
+    public long count() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the sum of all recorded durations.
+     *
+     * @return The total time in nanoseconds.
+     */
+    public long sumNanos() {
+        return sumNanos.sum();
+    }
+
+    /**
+     * Estimates a quantile as the upper bound of the bucket that contains it.
+     *
+     * @param quantile The quantile, between 0 and 1.
+     * @return The upper bound in nanoseconds, {@link Long#MAX_VALUE} if the quantile lies in
+     * the overflow bucket, or {@code 0} if nothing was recorded.
+     */
+    public long quantileUpperBoundNanos(double quantile) {
+        long total = count();
+        if (total == 0) {
+            return 0L;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS_NANOS.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank) {
+                return BOUNDS_NANOS[i];
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Resets the histogram. Durations recorded concurrently may or may not be kept.
+     */
+    void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        sumNanos.reset();
+    }
+}
@@ -0,0 +1,169 @@
+package net.honeyberries.betterSpawnProtect.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Collects checks, denials, bypasses and latency for every {@link EventMetric}. Instrumented
+ * code brackets its work with {@link #startTimer()} and {@link #record(EventMetric, long, Outcome)}:
+ * <pre>{@code
+ * long start = metrics.startTimer();
+ * // ... the check ...
+ * metrics.record(EventMetric.BLOCK_BREAK, start, outcome);
+ * }</pre>
+ * While metrics are disabled, {@code startTimer} returns {@code 0} without reading the clock
+ * and {@code record} returns immediately, so the instrumentation costs a volatile read and
+ * never allocates.
+ */
+public final class Metrics {
+
+    private final EventStats[] stats;
+    private volatile boolean enabled;
+    private volatile long resetAtMillis = System.currentTimeMillis();
+
+    /**
+     * Constructs a new, disabled {@code Metrics} instance.
+     */
+    public Metrics() {
+        EventMetric[] metrics = EventMetric.values();
+        this.stats = new EventStats[metrics.length];
+        for (EventMetric metric : metrics) {
+            stats[metric.ordinal()] = new EventStats(metric);
+        }
+    }
+
+    /**
+     * Enables or disables recording. Existing values are kept either way.
+     *
+     * @param enabled Whether checks should be recorded.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns whether checks are currently recorded.
+     *
+     * @return {@code true} if metrics are enabled, {@code false} otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts timing a check.
+     *
+     * @return The current {@link System#nanoTime()}, or {@code 0} if metrics are disabled.
+     */
+    public long startTimer() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records a check that was started with {@link #startTimer()}. Checks started while
+     * metrics were disabled are ignored.
+     *
+     * @param metric     The instrumented code path.
+     * @param startNanos The value returned by {@link #startTimer()}.
+     * @param outcome    The result of the check.
+     */
+    public void record(EventMetric metric, long startNanos, Outcome outcome) {
+        if (startNanos == 0L || !enabled) {
+            return;
+        }
+        stats[metric.ordinal()].record(outcome, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Returns the statistics of the given metric.
+     *
+     * @param metric The instrumented code path.
+     * @return The statistics of the metric.
+     */
+    public EventStats get(EventMetric metric) {
+        return stats[metric.ordinal()];
+    }
+
+    /**
+     * Returns the statistics of every metric that has recorded at least one check, ordered by
+     * the total time spent, highest first.
+     *
+     * @return A new list of the active statistics.
+     */
+    public List<EventStats> getActive() {
+        List<EventStats> active = new ArrayList<>();
+        for (EventStats eventStats : stats) {
+            if (eventStats.getChecks() > 0) {
+                active.add(eventStats);
+            }
+        }
+        active.sort((a, b) -> Long.compare(b.getLatency().sumNanos(), a.getLatency().sumNanos()));
+        return active;
+    }
+
+    /**
+     * Returns the time of the last reset, or of construction if never reset.
+     *
+     * @return The time in milliseconds since the epoch.
+     */
+    public long getResetAtMillis() {
+        return resetAtMillis;
+    }
+
+    /**
+     * Resets all statistics.
+     */
+    public void reset() {
+        for (EventStats eventStats : stats) {
+            eventStats.reset();
+        }
+        resetAtMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Writes all statistics in the Prometheus text exposition format.
+     *
+     * @param out The builder to append to.
+     */
+    public void writePrometheus(StringBuilder out) {
+        writeCounter(out, "betterspawnprotect_checks_total", "Protection checks performed.", EventStats::getChecks);
+        writeCounter(out, "betterspawnprotect_denied_total", "Checks that cancelled the action.", EventStats::getDenied);
+        writeCounter(out, "betterspawnprotect_bypassed_total", "Checks skipped because the player could bypass protection.", EventStats::getBypassed);
+
+        String name = "betterspawnprotect_check_duration_seconds";
+        out.append("# HELP ").append(name).append(" Time spent in protection checks.\n");
+        out.append("# TYPE ").append(name).append(" histogram\n");
+        for (EventStats eventStats : stats) {
+            String label = eventStats.getMetric().label();
+            LatencyHistogram latency = eventStats.getLatency();
+            long cumulative = 0;
+            for (int i = 0; i < LatencyHistogram.BOUNDS_NANOS.length; i++) {
+                cumulative += latency.bucketCount(i);
+                out.append(name).append("_bucket{event=\"").append(label).append("\",le=\"")
+                        .append(LatencyHistogram.BOUNDS_NANOS[i] / 1e9).append("\"} ").append(cumulative).append('\n');
+            }
+            cumulative += latency.bucketCount(LatencyHistogram.BOUNDS_NANOS.length);
+            out.append(name).append("_bucket{event=\"").append(label).append("\",le=\"+Inf\"} ").append(cumulative).append('\n');
+            out.append(name).append("_sum{event=\"").append(label).append("\"} ").append(latency.sumNanos() / 1e9).append('\n');
+            out.append(name).append("_count{event=\"").append(label).append("\"} ").append(cumulative).append('\n');
+        }
+    }
+
+    /**
+     * Writes one counter family with a sample per metric.
+     *
+     * @param out   The builder to append to.
+     * @param name  The name of the counter.
+     * @param help  The description of the counter.
+     * @param value Extracts the value of the counter from the statistics.
+     */
+    private void writeCounter(StringBuilder out, String name, String help, ToLongFunction<EventStats> value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        for (EventStats eventStats : stats) {
+            out.append(name).append("{event=\"").append(eventStats.getMetric().label()).append("\"} ")
+                    .append(value.applyAsLong(eventStats)).append('\n');
+        }
+    }
+}
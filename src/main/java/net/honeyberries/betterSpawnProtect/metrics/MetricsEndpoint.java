@@ -0,0 +1,102 @@
+package net.honeyberries.betterSpawnProtect.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the {@link Metrics} in the Prometheus text format at {@code /metrics}. The server is
+ * bound to the loopback address only, so it is reachable from the machine itself (or from a
+ * scraper behind a local proxy) but never from the network.
+ */
+public final class MetricsEndpoint {
+
+    private final Metrics metrics;
+    private HttpServer server;
+    private ExecutorService executor;
+    private int port;
+
+    /**
+     * Constructs a new, stopped endpoint.
+     *
+     * @param metrics The metrics to serve.
+     */
+    public MetricsEndpoint(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Starts serving on the given loopback port. An already running server is stopped first.
+     *
+     * @param port The TCP port to listen on.
+     * @throws IOException If the port could not be bound.
+     */
+    public synchronized void start(int port) throws IOException {
+        stop();
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        httpServer.createContext("/metrics", this::handle);
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "BetterSpawnProtect-Metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpServer.setExecutor(executor);
+        httpServer.start();
+        server = httpServer;
+        this.port = port;
+    }
+
+    /**
+     * Checks whether the server is running on the given port.
+     *
+     * @param port The TCP port to check.
+     * @return {@code true} if the server is serving on that port, {@code false} otherwise.
+     */
+    public synchronized boolean isRunningOn(int port) {
+        return server != null && this.port == port;
+    }
+
+    /**
+     * Stops the server if it is running.
+     */
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Answers a single scrape request.
+     *
+     * @param exchange The HTTP exchange.
+     * @throws IOException If the response could not be written.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            StringBuilder body = new StringBuilder(16 * 1024);
+            metrics.writePrometheus(body);
+            byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
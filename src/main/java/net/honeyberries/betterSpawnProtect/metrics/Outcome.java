@@ -0,0 +1,19 @@
+package net.honeyberries.betterSpawnProtect.metrics;
+
+/**
+ * The result of an instrumented check.
+ */
+public enum Outcome {
+    /**
+     * The action was checked and allowed.
+     */
+    ALLOWED,
+    /**
+     * The action was cancelled, or at least part of it was, as with explosions.
+     */
+    DENIED,
+    /**
+     * The action was allowed without a protection check because the player can bypass it.
+     */
+    BYPASSED
+}
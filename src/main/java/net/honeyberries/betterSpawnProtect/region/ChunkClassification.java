@@ -0,0 +1,22 @@
+package net.honeyberries.betterSpawnProtect.region;
+
+/**
+ * Describes how a chunk, or any other area, relates to the protected regions of its world.
+ */
+public enum ChunkClassification {
+
+    /**
+     * Every block of the chunk or area is protected. No per-block check is needed.
+     */
+    INSIDE,
+
+    /**
+     * No block of the chunk or area is protected. No per-block check is needed.
+     */
+    OUTSIDE,
+
+    /**
+     * The chunk or area crosses the edge of at least one region, so individual blocks must be checked.
+     */
+    BOUNDARY
+}
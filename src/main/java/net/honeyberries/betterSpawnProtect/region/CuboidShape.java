@@ -0,0 +1,92 @@
+package net.honeyberries.betterSpawnProtect.region;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An axis-aligned box. Its X and Z extents are half-open, so a cuboid configured from block
+ * {@code 0} to block {@code 9} covers positions from {@code 0} up to, but excluding, {@code 10}.
+ */
+final class CuboidShape extends RegionShape {
+
+    CuboidShape(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        super(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    @Override
+    boolean test(double x, double y, double z) {
+        // The bounding box reject has already checked the lower bounds and the Y range
+        return x < maxX && z < maxZ;
+    }
+
+    @Override
+    boolean outlineContains(double minX, double minZ, double maxX, double maxZ) {
+        return minX >= this.minX && maxX <= this.maxX && minZ >= this.minZ && maxZ <= this.maxZ;
+    }
+
+    @Override
+    boolean outlineIntersects(double minX, double minZ, double maxX, double maxZ) {
+        return minX < this.maxX && maxX > this.minX && minZ < this.maxZ && maxZ > this.minZ;
+    }
+
+    @Override
+    public int getMaxBlockX() {
+        return (int) Math.ceil(maxX) - 1;
+    }
+
+    @Override
+    public int getMaxBlockZ() {
+        return (int) Math.ceil(maxZ) - 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CuboidShape other)) {
+            return false;
+        }
+        return Double.compare(minX, other.minX) == 0 && Double.compare(minY, other.minY) == 0
+                && Double.compare(minZ, other.minZ) == 0 && Double.compare(maxX, other.maxX) == 0
+                && Double.compare(maxY, other.maxY) == 0 && Double.compare(maxZ, other.maxZ) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(minX);
+        result = 31 * result + Double.hashCode(minY);
+        result = 31 * result + Double.hashCode(minZ);
+        result = 31 * result + Double.hashCode(maxX);
+        result = 31 * result + Double.hashCode(maxY);
+        return 31 * result + Double.hashCode(maxZ);
+    }
+
+    @Override
+    public Map<String, Object> toConfig() {
+        Map<String, Object> min = new LinkedHashMap<>();
+        min.put("x", (int) minX);
+        if (minY != Double.NEGATIVE_INFINITY) {
+            min.put("y", (int) minY);
+        }
+        min.put("z", (int) minZ);
+        Map<String, Object> max = new LinkedHashMap<>();
+        max.put("x", (int) maxX - 1);
+        if (maxY != Double.POSITIVE_INFINITY) {
+            max.put("y", (int) maxY - 1);
+        }
+        max.put("z", (int) maxZ - 1);
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("shape", "cuboid");
+        config.put("min", min);
+        config.put("max", max);
+        return config;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Cuboid X: %d..%d, Z: %d..%d%s",
+                getMinBlockX(), getMaxBlockX(), getMinBlockZ(), getMaxBlockZ(), describeYRange());
+    }
+}
@@ -0,0 +1,78 @@
+package net.honeyberries.betterSpawnProtect.region;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A vertical cylinder, optionally limited in height. Without limits this is the infinite
+ * circular column of the original spawn protection.
+ */
+final class CylinderShape extends RoundShape {
+
+    CylinderShape(double cx, double cy, double cz, double radius, double minY, double maxY) {
+        super(cx, cy, cz, Math.max(0, radius), minY, maxY);
+    }
+
+    @Override
+    boolean test(double x, double y, double z) {
+        return inCircle(x, z);
+    }
+
+    @Override
+    boolean outlineContains(double minX, double minZ, double maxX, double maxZ) {
+        // Because the circle is convex, it is enough to test the four corners of the rectangle
+        return inCircle(minX, minZ) && inCircle(minX, maxZ) && inCircle(maxX, minZ) && inCircle(maxX, maxZ);
+    }
+
+    /**
+     * {@inheritDoc} The vertical limits stay where they are, since they are configured as
+     * absolute heights.
+     */
+    @Override
+    RoundShape withCenter(double x, double y, double z) {
+        return new CylinderShape(x, y, z, radius, minY, maxY);
+    }
+
+    @Override
+    RoundShape withRadius(double radius) {
+        return new CylinderShape(cx, cy, cz, radius, minY, maxY);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CylinderShape other)) {
+            return false;
+        }
+        return Double.compare(cx, other.cx) == 0 && Double.compare(cy, other.cy) == 0
+                && Double.compare(cz, other.cz) == 0 && Double.compare(radius, other.radius) == 0
+                && Double.compare(minY, other.minY) == 0 && Double.compare(maxY, other.maxY) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(cx);
+        result = 31 * result + Double.hashCode(cy);
+        result = 31 * result + Double.hashCode(cz);
+        result = 31 * result + Double.hashCode(radius);
+        result = 31 * result + Double.hashCode(minY);
+        return 31 * result + Double.hashCode(maxY);
+    }
+
+    @Override
+    public Map<String, Object> toConfig() {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("shape", "cylinder");
+        config.put("center", point(cx, cy, cz));
+        config.put("radius", radius);
+        putYRange(config);
+        return config;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Cylinder (%.2f, %.2f, %.2f), Radius: %.2f%s", cx, cy, cz, radius, describeYRange());
+    }
+}
@@ -0,0 +1,239 @@
+package net.honeyberries.betterSpawnProtect.region;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A vertical prism over a simple polygon on the X/Z plane, optionally limited in height.
+ * <p>
+ * Containment uses the even-odd rule, casting a ray along the X axis. To avoid testing every
+ * edge, the bounding box is split into at most {@value #MAX_ROWS} rows along Z, and each row
+ * holds the edges whose Z span overlaps it. A query only walks the edges of its own row, which
+ * for typical outlines are two or four.
+ */
+final class PolygonShape extends RegionShape {
+
+    /**
+     * The largest number of rows in the edge table.
+     */
+    static final int MAX_ROWS = 4096;
+
+    /**
+     * The vertices, in order.
+     */
+    final double[] xs, zs;
+
+    /**
+     * Per edge, the start point, the Z of the end point, and the change in X per unit of Z.
+     */
+    private final double[] edgeX, edgeZ, edgeEndZ, edgeSlope;
+
+    /**
+     * Converts a Z offset from {@code minZ} into a row index.
+     */
+    private final double rowScale;
+
+    /**
+     * For every row, the indices of the non-horizontal edges overlapping it.
+     */
+    private final int[][] rowEdges;
+
+    PolygonShape(double[] xs, double[] zs, double minY, double maxY) {
+        super(min(xs), minY, min(zs), max(xs), maxY, max(zs));
+        if (xs.length != zs.length || xs.length < 3) {
+            throw new IllegalArgumentException("A polygon needs at least three vertices");
+        }
+        this.xs = xs;
+        this.zs = zs;
+
+        int n = xs.length;
+        this.edgeX = new double[n];
+        this.edgeZ = new double[n];
+        this.edgeEndZ = new double[n];
+        this.edgeSlope = new double[n];
+        for (int i = 0; i < n; i++) {
+            int j = i + 1 == n ? 0 : i + 1;
+            edgeX[i] = xs[i];
+            edgeZ[i] = zs[i];
+            edgeEndZ[i] = zs[j];
+            edgeSlope[i] = zs[j] == zs[i] ? 0 : (xs[j] - xs[i]) / (zs[j] - zs[i]);
+        }
+
+        int rows = (int) Math.max(1, Math.min(MAX_ROWS, Math.ceil(maxZ - minZ)));
+        this.rowScale = maxZ > minZ ? rows / (maxZ - minZ) : 0;
+        int[] counts = new int[rows];
+        for (int i = 0; i < n; i++) {
+            if (edgeZ[i] != edgeEndZ[i]) {
+                for (int row = row(Math.min(edgeZ[i], edgeEndZ[i]), rows); row <= row(Math.max(edgeZ[i], edgeEndZ[i]), rows); row++) {
+                    counts[row]++;
+                }
+            }
+        }
+        this.rowEdges = new int[rows][];
+        for (int row = 0; row < rows; row++) {
+            rowEdges[row] = new int[counts[row]];
+            counts[row] = 0;
+        }
+        for (int i = 0; i < n; i++) {
+            if (edgeZ[i] != edgeEndZ[i]) {
+                for (int row = row(Math.min(edgeZ[i], edgeEndZ[i]), rows); row <= row(Math.max(edgeZ[i], edgeEndZ[i]), rows); row++) {
+                    rowEdges[row][counts[row]++] = i;
+                }
+            }
+        }
+    }
+
+    private int row(double z, int rows) {
+        return Math.min(rows - 1, (int) ((z - minZ) * rowScale));
+    }
+
+    @Override
+    boolean test(double x, double y, double z) {
+        boolean inside = false;
+        for (int edge : rowEdges[row(z, rowEdges.length)]) {
+            if ((edgeZ[edge] > z) != (edgeEndZ[edge] > z) && x < edgeX[edge] + (z - edgeZ[edge]) * edgeSlope[edge]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Checks whether the given X/Z position lies within the polygon, including the bounding
+     * box reject.
+     */
+    private boolean inOutline(double x, double z) {
+        return x >= minX && x <= maxX && z >= minZ && z <= maxZ && test(x, 0, z);
+    }
+
+    @Override
+    boolean outlineContains(double minX, double minZ, double maxX, double maxZ) {
+        // The rectangle is inside if its corners are and no edge of the polygon reaches into it
+        if (!inOutline(minX, minZ) || !inOutline(minX, maxZ) || !inOutline(maxX, minZ) || !inOutline(maxX, maxZ)) {
+            return false;
+        }
+        return !anyEdgeIntersects(minX, minZ, maxX, maxZ);
+    }
+
+    @Override
+    boolean outlineIntersects(double minX, double minZ, double maxX, double maxZ) {
+        // Without a crossing edge, the rectangle lies either inside the polygon, around it, or apart from it
+        return anyEdgeIntersects(minX, minZ, maxX, maxZ)
+                || inOutline(minX, minZ)
+                || (xs[0] >= minX && xs[0] <= maxX && zs[0] >= minZ && zs[0] <= maxZ);
+    }
+
+    /**
+     * Checks whether any edge of the polygon touches the closed rectangle.
+     */
+    private boolean anyEdgeIntersects(double minX, double minZ, double maxX, double maxZ) {
+        int n = xs.length;
+        for (int i = 0; i < n; i++) {
+            int j = i + 1 == n ? 0 : i + 1;
+            if (segmentIntersectsRect(xs[i], zs[i], xs[j], zs[j], minX, minZ, maxX, maxZ)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Clips the segment against the closed rectangle (Liang-Barsky) and reports whether any
+     * part of it remains.
+     */
+    private static boolean segmentIntersectsRect(double x1, double z1, double x2, double z2,
+                                                 double minX, double minZ, double maxX, double maxZ) {
+        double dx = x2 - x1;
+        double dz = z2 - z1;
+        double enter = 0;
+        double exit = 1;
+        for (int side = 0; side < 4; side++) {
+            double p = switch (side) {
+                case 0 -> -dx;
+                case 1 -> dx;
+                case 2 -> -dz;
+                default -> dz;
+            };
+            double q = switch (side) {
+                case 0 -> x1 - minX;
+                case 1 -> maxX - x1;
+                case 2 -> z1 - minZ;
+                default -> maxZ - z1;
+            };
+            if (p == 0) {
+                if (q < 0) {
+                    return false;
+                }
+            } else {
+                double t = q / p;
+                if (p < 0) {
+                    enter = Math.max(enter, t);
+                } else {
+                    exit = Math.min(exit, t);
+                }
+                if (enter > exit) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static double min(double[] values) {
+        double min = Double.POSITIVE_INFINITY;
+        for (double value : values) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    private static double max(double[] values) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PolygonShape other)) {
+            return false;
+        }
+        return Arrays.equals(xs, other.xs) && Arrays.equals(zs, other.zs)
+                && Double.compare(minY, other.minY) == 0 && Double.compare(maxY, other.maxY) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(xs);
+        result = 31 * result + Arrays.hashCode(zs);
+        result = 31 * result + Double.hashCode(minY);
+        return 31 * result + Double.hashCode(maxY);
+    }
+
+    @Override
+    public Map<String, Object> toConfig() {
+        List<List<Double>> points = new ArrayList<>(xs.length);
+        for (int i = 0; i < xs.length; i++) {
+            points.add(List.of(xs[i], zs[i]));
+        }
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("shape", "polygon");
+        config.put("points", points);
+        putYRange(config);
+        return config;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Polygon of %d vertices, X: %.1f..%.1f, Z: %.1f..%.1f%s",
+                xs.length, minX, maxX, minZ, maxZ, describeYRange());
+    }
+}
@@ -0,0 +1,255 @@
+package net.honeyberries.betterSpawnProtect.region;
+
+import java.util.Objects;
+
+/**
+ * An immutable, named protected area in a single world. Its geometry is a {@link RegionShape}:
+ * a cylinder by default, matching the behavior of the original spawn protection, or a sphere,
+ * cuboid or polygon. The block bounds of the shape are precomputed so the region can be placed
+ * into a {@link RegionIndex} without repeating the arithmetic.
+ * <p>
+ * The categories of actions a region protects against are compiled into a bitmask of
+ * {@link RegionFlag} bits. By default a region protects against everything.
+ */
+public final class ProtectedRegion {
+
+    private final String name;
+    private final String worldName;
+    private final RegionShape shape;
+    private final int flags;
+
+    /**
+     * The protected categories together with {@link RegionFlag#ANY_REGION}, as tested by the index.
+     */
+    final int mask;
+
+    /**
+     * Constructs a new {@code ProtectedRegion} with the given shape, protecting against every
+     * category of actions.
+     *
+     * @param name      The unique name of the region.
+     * @param worldName The name of the world the region belongs to.
+     * @param shape     The geometry of the region.
+     */
+    public ProtectedRegion(String name, String worldName, RegionShape shape) {
+        this(name, worldName, shape, RegionFlag.ALL);
+    }
+
+    /**
+     * Constructs a new {@code ProtectedRegion} with the given shape, protecting against the
+     * given categories of actions.
+     *
+     * @param name      The unique name of the region.
+     * @param worldName The name of the world the region belongs to.
+     * @param shape     The geometry of the region.
+     * @param flags     The bits of the {@link RegionFlag}s the region protects against.
+     */
+    public ProtectedRegion(String name, String worldName, RegionShape shape, int flags) {
+        this.name = name;
+        this.worldName = worldName;
+        this.shape = shape;
+        this.flags = flags & RegionFlag.ALL;
+        this.mask = this.flags | RegionFlag.ANY_REGION;
+    }
+
+    /**
+     * Constructs a new {@code ProtectedRegion} shaped as a cylinder through the whole height of
+     * the world.
+     *
+     * @param name      The unique name of the region.
+     * @param worldName The name of the world the region belongs to.
+     * @param cx        The X coordinate of the center.
+     * @param cy        The Y coordinate of the center.
+     * @param cz        The Z coordinate of the center.
+     * @param radius    The radius of the region. Negative values are treated as zero.
+     */
+    public ProtectedRegion(String name, String worldName, double cx, double cy, double cz, double radius) {
+        this(name, worldName, RegionShape.cylinder(cx, cy, cz, radius, Integer.MIN_VALUE, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Checks whether the given position lies within this region.
+     *
+     * @param x The X coordinate.
+     * @param y The Y coordinate.
+     * @param z The Z coordinate.
+     * @return {@code true} if the position is inside the region, {@code false} otherwise.
+     */
+    public boolean contains(double x, double y, double z) {
+        return shape.contains(x, y, z);
+    }
+
+    /**
+     * Returns a copy of this region moved to a new world and center. Only round regions,
+     * such as the main spawn region, can be moved.
+     *
+     * @param worldName The name of the new world.
+     * @param x         The new center X coordinate.
+     * @param y         The new center Y coordinate.
+     * @param z         The new center Z coordinate.
+     * @return The moved region.
+     * @throws IllegalStateException If the region is not round.
+     */
+    public ProtectedRegion withCenter(String worldName, double x, double y, double z) {
+        return new ProtectedRegion(name, worldName, round().withCenter(x, y, z), flags);
+    }
+
+    /**
+     * Returns a copy of this region with a new radius. Only round regions, such as the main
+     * spawn region, can be resized.
+     *
+     * @param radius The new radius.
+     * @return The resized region.
+     * @throws IllegalStateException If the region is not round.
+     */
+    public ProtectedRegion withRadius(double radius) {
+        return new ProtectedRegion(name, worldName, round().withRadius(radius), flags);
+    }
+
+    private RoundShape round() {
+        if (!(shape instanceof RoundShape round)) {
+            throw new IllegalStateException("Region '" + name + "' has no center and radius");
+        }
+        return round;
+    }
+
+    /**
+     * Returns the unique name of this region.
+     *
+     * @return The unique name of this region.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the name of the world this region belongs to.
+     *
+     * @return The name of the world this region belongs to.
+     */
+    public String getWorldName() {
+        return worldName;
+    }
+
+    /**
+     * Returns the geometry of this region.
+     *
+     * @return The shape of this region.
+     */
+    public RegionShape getShape() {
+        return shape;
+    }
+
+    /**
+     * Returns the categories of actions this region protects against.
+     *
+     * @return The bits of the protected {@link RegionFlag}s.
+     */
+    public int getFlags() {
+        return flags;
+    }
+
+    /**
+     * Checks whether this region protects against the given category of actions.
+     *
+     * @param flag The category to check.
+     * @return {@code true} if the category is protected, {@code false} if it is allowed.
+     */
+    public boolean protects(RegionFlag flag) {
+        return (flags & flag.bit()) != 0;
+    }
+
+    /**
+     * Returns the X coordinate of the center.
+     *
+     * @return The X coordinate of the center.
+     */
+    public double getCenterX() {
+        return shape.getCenterX();
+    }
+
+    /**
+     * Returns the Y coordinate of the center.
+     *
+     * @return The Y coordinate of the center.
+     */
+    public double getCenterY() {
+        return shape.getCenterY();
+    }
+
+    /**
+     * Returns the Z coordinate of the center.
+     *
+     * @return The Z coordinate of the center.
+     */
+    public double getCenterZ() {
+        return shape.getCenterZ();
+    }
+
+    /**
+     * Returns the radius of this region.
+     *
+     * @return The radius of this region, or {@code 0} if it is not round.
+     */
+    public double getRadius() {
+        return shape instanceof RoundShape round ? round.getRadius() : 0;
+    }
+
+    /**
+     * Returns the smallest block X coordinate covered by this region.
+     *
+     * @return The smallest block X coordinate covered by this region.
+     */
+    public int getMinBlockX() {
+        return shape.getMinBlockX();
+    }
+
+    /**
+     * Returns the largest block X coordinate covered by this region.
+     *
+     * @return The largest block X coordinate covered by this region.
+     */
+    public int getMaxBlockX() {
+        return shape.getMaxBlockX();
+    }
+
+    /**
+     * Returns the smallest block Z coordinate covered by this region.
+     *
+     * @return The smallest block Z coordinate covered by this region.
+     */
+    public int getMinBlockZ() {
+        return shape.getMinBlockZ();
+    }
+
+    /**
+     * Returns the largest block Z coordinate covered by this region.
+     *
+     * @return The largest block Z coordinate covered by this region.
+     */
+    public int getMaxBlockZ() {
+        return shape.getMaxBlockZ();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ProtectedRegion other)) {
+            return false;
+        }
+        return name.equals(other.name) && worldName.equals(other.worldName) && shape.equals(other.shape)
+                && flags == other.flags;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, worldName, shape, flags);
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + worldName + " " + shape;
+    }
+}
@@ -0,0 +1,280 @@
+package net.honeyberries.betterSpawnProtect.region;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable, compiled view of every protected region, grouped per world into a
+ * {@link RegionIndex}. A snapshot is never modified after construction; changes produce a new
+ * snapshot instead. This lets it be published through a single volatile reference and read
+ * from any thread without locking, while every reader sees a consistent combination of
+ * center, radius and world.
+ * <p>
+ * A snapshot also compiles the spawn-control rules of its regions. For every world and every
+ * spawn key that some region denies, it keeps a separate index of just the regions denying it,
+ * so creature spawns for keys that no region denies are accepted after a single lookup.
+ */
+public final class ProtectionSnapshot {
+
+    /**
+     * A snapshot without any regions.
+     */
+    public static final ProtectionSnapshot EMPTY = new ProtectionSnapshot(null, Collections.emptyList(), Collections.emptyMap(),
+            Collections.emptyMap());
+
+    private final ProtectedRegion spawnRegion;
+    private final List<ProtectedRegion> regions;
+    private final Map<String, RegionIndex> indexByWorld;
+    private final Map<String, Set<String>> spawnRules;
+    private final Map<String, Map<String, RegionIndex>> spawnIndexByWorld;
+    private final int flagUnion;
+
+    private ProtectionSnapshot(ProtectedRegion spawnRegion, List<ProtectedRegion> regions, Map<String, RegionIndex> indexByWorld,
+                               Map<String, Set<String>> spawnRules) {
+        this.spawnRegion = spawnRegion;
+        this.regions = regions;
+        this.indexByWorld = indexByWorld;
+        this.spawnRules = spawnRules;
+        this.spawnIndexByWorld = compileSpawnRules(regions, spawnRules);
+        int union = 0;
+        for (ProtectedRegion region : regions) {
+            union |= region.getFlags();
+        }
+        this.flagUnion = union;
+    }
+
+    /**
+     * Compiles a new snapshot from the given regions, without any spawn-control rules.
+     *
+     * @param spawnRegion The main spawn region. It must also be part of {@code regions}.
+     * @param regions     The complete list of protected regions.
+     * @param previous    The snapshot being replaced, used to reuse unchanged indexes.
+     * @return The compiled snapshot.
+     */
+    public static ProtectionSnapshot compile(ProtectedRegion spawnRegion, List<ProtectedRegion> regions, ProtectionSnapshot previous) {
+        return compile(spawnRegion, regions, Collections.emptyMap(), previous);
+    }
+
+    /**
+     * Compiles a new snapshot from the given regions. Worlds whose regions are unchanged
+     * compared to the previous snapshot keep their existing, already classified index.
+     *
+     * @param spawnRegion The main spawn region. It must also be part of {@code regions}.
+     * @param regions     The complete list of protected regions.
+     * @param spawnRules  The spawn keys denied by each region, by region name. Regions without
+     *                    an entry allow every spawn, and entries for unknown regions are ignored.
+     * @param previous    The snapshot being replaced, used to reuse unchanged indexes.
+     * @return The compiled snapshot.
+     */
+    public static ProtectionSnapshot compile(ProtectedRegion spawnRegion, List<ProtectedRegion> regions,
+                                             Map<String, Set<String>> spawnRules, ProtectionSnapshot previous) {
+        Map<String, List<ProtectedRegion>> byWorld = new HashMap<>();
+        for (ProtectedRegion region : regions) {
+            byWorld.computeIfAbsent(region.getWorldName(), key -> new ArrayList<>()).add(region);
+        }
+
+        Map<String, RegionIndex> indexes = new HashMap<>();
+        for (Map.Entry<String, List<ProtectedRegion>> entry : byWorld.entrySet()) {
+            RegionIndex existing = previous.indexByWorld.get(entry.getKey());
+            if (existing != null && existing.getRegions().equals(entry.getValue())) {
+                indexes.put(entry.getKey(), existing);
+            } else {
+                indexes.put(entry.getKey(), RegionIndex.build(entry.getValue()));
+            }
+        }
+        Map<String, Set<String>> rules = new HashMap<>();
+        spawnRules.forEach((name, keys) -> {
+            if (!keys.isEmpty()) {
+                rules.put(name, Set.copyOf(keys));
+            }
+        });
+        return new ProtectionSnapshot(spawnRegion, List.copyOf(regions), Map.copyOf(indexes), Map.copyOf(rules));
+    }
+
+    /**
+     * Builds the spawn-control indexes: for every world and every spawn key denied there, an
+     * index of the regions denying it.
+     *
+     * @param regions    The protected regions.
+     * @param spawnRules The spawn keys denied by each region, by region name.
+     * @return The indexes by world name and spawn key.
+     */
+    private static Map<String, Map<String, RegionIndex>> compileSpawnRules(List<ProtectedRegion> regions,
+                                                                          Map<String, Set<String>> spawnRules) {
+        if (spawnRules.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Map<String, List<ProtectedRegion>>> byWorld = new HashMap<>();
+        for (ProtectedRegion region : regions) {
+            Set<String> keys = spawnRules.get(region.getName());
+            if (keys == null) {
+                continue;
+            }
+            Map<String, List<ProtectedRegion>> byKey = byWorld.computeIfAbsent(region.getWorldName(), world -> new HashMap<>());
+            for (String key : keys) {
+                byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(region);
+            }
+        }
+
+        Map<String, Map<String, RegionIndex>> indexes = new HashMap<>();
+        byWorld.forEach((world, byKey) -> {
+            Map<String, RegionIndex> worldIndexes = new HashMap<>();
+            byKey.forEach((key, denying) -> worldIndexes.put(key, RegionIndex.build(denying)));
+            indexes.put(world, Map.copyOf(worldIndexes));
+        });
+        return Map.copyOf(indexes);
+    }
+
+    /**
+     * Returns the spawn key for a spawn reason and category of creature, as used in the
+     * spawn-control rules.
+     *
+     * @param hostile Whether the creature is hostile.
+     * @param reason  The lower-case name of the spawn reason, such as {@code natural}.
+     * @return The spawn key, such as {@code hostile:natural}.
+     */
+    public static String spawnKey(boolean hostile, String reason) {
+        return (hostile ? "hostile:" : "passive:") + reason;
+    }
+
+    /**
+     * Returns a copy of this snapshot with the main spawn region replaced. Only the indexes of
+     * the affected worlds are updated, and within them only the chunks covered by the old or
+     * new geometry are reclassified.
+     *
+     * @param newSpawnRegion The updated spawn region.
+     * @return The updated snapshot.
+     */
+    public ProtectionSnapshot withSpawnRegion(ProtectedRegion newSpawnRegion) {
+        List<ProtectedRegion> newRegions = new ArrayList<>(regions);
+        newRegions.set(newRegions.indexOf(spawnRegion), newSpawnRegion);
+
+        Map<String, RegionIndex> indexes = new HashMap<>(indexByWorld);
+        String previousWorld = spawnRegion.getWorldName();
+        String newWorld = newSpawnRegion.getWorldName();
+        if (previousWorld.equals(newWorld)) {
+            indexes.put(newWorld, index(newWorld).replace(spawnRegion, newSpawnRegion));
+        } else {
+            indexes.put(previousWorld, index(previousWorld).replace(spawnRegion, null));
+            indexes.put(newWorld, index(newWorld).replace(null, newSpawnRegion));
+        }
+        return new ProtectionSnapshot(newSpawnRegion, List.copyOf(newRegions), Map.copyOf(indexes), spawnRules);
+    }
+
+    /**
+     * Checks if the given block position is within any protected area. Positions in a world
+     * without regions are rejected after a single map lookup.
+     *
+     * @param worldName The name of the world.
+     * @param blockX    The block X coordinate.
+     * @param blockY    The block Y coordinate.
+     * @param blockZ    The block Z coordinate.
+     * @return {@code true} if the position is within a protected area, {@code false} otherwise.
+     */
+    public boolean isProtected(String worldName, int blockX, int blockY, int blockZ) {
+        RegionIndex index = indexByWorld.get(worldName);
+        return index != null && index.isProtected(blockX, blockY, blockZ);
+    }
+
+    /**
+     * Checks if the given block position is within any region protecting against one of the
+     * given categories.
+     *
+     * @param worldName The name of the world.
+     * @param blockX    The block X coordinate.
+     * @param blockY    The block Y coordinate.
+     * @param blockZ    The block Z coordinate.
+     * @param mask      The bits of the {@link RegionFlag}s to check.
+     * @return {@code true} if the position is protected against the categories, {@code false} otherwise.
+     */
+    public boolean isProtected(String worldName, int blockX, int blockY, int blockZ, int mask) {
+        RegionIndex index = indexByWorld.get(worldName);
+        return index != null && index.isProtected(blockX, blockY, blockZ, mask);
+    }
+
+    /**
+     * Checks whether at least one region protects against the given category. Listeners for
+     * categories that no region protects against do not need to run at all.
+     *
+     * @param flag The category to check.
+     * @return {@code true} if any region protects against the category, {@code false} otherwise.
+     */
+    public boolean anyProtects(RegionFlag flag) {
+        return (flagUnion & flag.bit()) != 0;
+    }
+
+    /**
+     * Returns the index of the given world.
+     *
+     * @param worldName The name of the world.
+     * @return The index of the world, or {@link RegionIndex#EMPTY} if it has no regions.
+     */
+    public RegionIndex index(String worldName) {
+        RegionIndex index = indexByWorld.get(worldName);
+        return index == null ? RegionIndex.EMPTY : index;
+    }
+
+    /**
+     * Returns the index of the given world, or {@code null} if the world has no regions.
+     * This is the variant used on hot paths, where an unprotected world exits after a
+     * single lookup.
+     *
+     * @param worldName The name of the world.
+     * @return The index of the world, or {@code null}.
+     */
+    public RegionIndex indexOrNull(String worldName) {
+        return indexByWorld.get(worldName);
+    }
+
+    /**
+     * Returns the index of the regions in the given world that deny spawns with the given key.
+     *
+     * @param worldName The name of the world.
+     * @param spawnKey  The spawn key, as built by {@link #spawnKey(boolean, String)}.
+     * @return The index, or {@code null} if no region in the world denies such spawns.
+     */
+    public RegionIndex spawnIndexOrNull(String worldName, String spawnKey) {
+        Map<String, RegionIndex> indexes = spawnIndexByWorld.get(worldName);
+        return indexes == null ? null : indexes.get(spawnKey);
+    }
+
+    /**
+     * Checks whether any region denies any spawns.
+     *
+     * @return {@code true} if at least one spawn-control rule applies, {@code false} otherwise.
+     */
+    public boolean hasSpawnRules() {
+        return !spawnIndexByWorld.isEmpty();
+    }
+
+    /**
+     * Returns the names of every world that has at least one region.
+     *
+     * @return An unmodifiable set of world names.
+     */
+    public Set<String> getWorldNames() {
+        return indexByWorld.keySet();
+    }
+
+    /**
+     * Returns the main spawn region.
+     *
+     * @return The spawn region, or {@code null} for the empty snapshot.
+     */
+    public ProtectedRegion getSpawnRegion() {
+        return spawnRegion;
+    }
+
+    /**
+     * Returns all protected regions, starting with the main spawn region.
+     *
+     * @return An unmodifiable list of the protected regions.
+     */
+    public List<ProtectedRegion> getRegions() {
+        return regions;
+    }
+}
@@ -0,0 +1,122 @@
+package net.honeyberries.betterSpawnProtect.region;
+
+import java.util.Locale;
+
+/**
+ * A category of actions that a {@link ProtectedRegion} can protect against. A region compiles
+ * the categories it protects into a bitmask, so a protection check for one category is a single
+ * bit test once the region has been found.
+ */
+public enum RegionFlag {
+
+    /**
+     * Players breaking blocks.
+     */
+    BREAK,
+    /**
+     * Players placing blocks.
+     */
+    PLACE,
+    /**
+     * Players interacting with blocks, such as doors, buttons and containers, and hoppers moving
+     * items into or out of containers across the border of a region.
+     */
+    INTERACT,
+    /**
+     * Players emptying or filling buckets.
+     */
+    BUCKETS,
+    /**
+     * Water and lava flowing.
+     */
+    FLUIDS,
+    /**
+     * Fire igniting, spreading and burning blocks.
+     */
+    FIRE,
+    /**
+     * Explosions destroying blocks.
+     */
+    EXPLOSIONS,
+    /**
+     * Pistons moving blocks.
+     */
+    PISTONS,
+    /**
+     * Trees, plants, grass and other blocks growing or spreading, including bone meal.
+     */
+    GROWTH,
+    /**
+     * Blocks forming naturally, such as snow, ice and concrete.
+     */
+    FORM,
+    /**
+     * Blocks fading naturally, such as melting ice and decaying coral.
+     */
+    FADE,
+    /**
+     * Entities other than players changing blocks, such as endermen and farmland trampling.
+     */
+    ENTITY_GRIEF,
+    /**
+     * Paintings and item frames being broken.
+     */
+    HANGING,
+    /**
+     * Players manipulating armor stands.
+     */
+    ARMOR_STANDS,
+    /**
+     * Entities being damaged by other entities.
+     */
+    ENTITY_DAMAGE;
+
+    /**
+     * A bit set in the mask of every region, regardless of the categories it protects. Querying
+     * with this mask checks whether a position lies in any region at all.
+     */
+    public static final int ANY_REGION = 1 << 31;
+
+    /**
+     * The mask of all categories, which regions protect unless configured otherwise.
+     */
+    public static final int ALL = (1 << values().length) - 1;
+
+    private final int bit = 1 << ordinal();
+    private final String key = name().toLowerCase(Locale.ROOT).replace('_', '-');
+
+    /**
+     * Returns the bit of this category in a region's mask.
+     *
+     * @return The bit of this category.
+     */
+    public int bit() {
+        return bit;
+    }
+
+    /**
+     * Returns the name of this category in the configuration, such as {@code entity-damage}.
+     *
+     * @return The configuration key.
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Looks up a category by its configuration key.
+     *
+     * @param key The configuration key, case-insensitive.
+     * @return The category.
+     * @throws IllegalArgumentException If no category has the given key.
+     */
+    public static RegionFlag fromKey(String key) {
+        String normalized = key.trim().toLowerCase(Locale.ROOT);
+        for (RegionFlag flag : values()) {
+            if (flag.key.equals(normalized)) {
+                return flag;
+            }
+        }
+        throw new IllegalArgumentException("unknown flag '" + key + "'");
+    }
+}
@@ -0,0 +1,672 @@
+package net.honeyberries.betterSpawnProtect.region;
+
+import net.honeyberries.betterSpawnProtect.util.CoordinateKeys;
+import net.honeyberries.betterSpawnProtect.util.LongObjectMap;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * An immutable spatial index over the protected regions of a single world.
+ * <p>
+ * Regions are bucketed by the packed key of every chunk they overlap, so a point query only
+ * looks at the handful of regions that share its chunk. Regions that would cover too many
+ * chunks are bucketed into a coarse grid of 512x512 block cells instead, and regions that are
+ * too large even for that grid are kept in a short list that every query checks.
+ * <p>
+ * Buckets are keyed by the X/Z outline of each region. Every bucket is classified when it is
+ * built: a cell lying entirely inside a region without vertical limits answers queries without
+ * any shape math, and only the regions whose outline crosses the cell, or that are limited in
+ * height, are tested per position. When a single region changes, {@link #replace} copies the
+ * index and reclassifies only the cells covered by the old and new geometry.
+ * <p>
+ * Queries take a mask of {@link RegionFlag} bits and only consider regions protecting at least
+ * one of them. Every cell keeps the combined mask of the regions covering it entirely, so a query
+ * in such a cell is a single bit test. {@link RegionFlag#ANY_REGION} matches every region and
+ * is used for plain membership queries.
+ */
+public final class RegionIndex {
+
+    /**
+     * The largest number of chunks a region may span before it is moved to the coarse grid.
+     */
+    static final int MAX_CHUNK_CELLS = 4096;
+
+    /**
+     * The shift converting block coordinates into coarse grid cell coordinates (512 blocks).
+     */
+    static final int GRID_SHIFT = 9;
+
+    /**
+     * The largest number of coarse cells a region may span before it is checked on every query.
+     */
+    static final int MAX_GRID_CELLS = 4096;
+
+    /**
+     * The largest number of chunks an area query examines before reporting a boundary.
+     */
+    static final int MAX_AREA_CHUNKS = 64;
+
+    private static final int CHUNK_SHIFT = 4;
+    private static final ProtectedRegion[] NO_REGIONS = new ProtectedRegion[0];
+
+    /**
+     * An index without any regions.
+     */
+    public static final RegionIndex EMPTY = new RegionIndex(
+            Collections.emptyList(), new LongObjectMap<>(0), new LongObjectMap<>(0), NO_REGIONS);
+
+    private final List<ProtectedRegion> regions;
+    private final LongObjectMap<Cell> chunkCells;
+    private final LongObjectMap<Cell> gridCells;
+    private final ProtectedRegion[] unbounded;
+
+    private RegionIndex(List<ProtectedRegion> regions, LongObjectMap<Cell> chunkCells,
+                        LongObjectMap<Cell> gridCells, ProtectedRegion[] unbounded) {
+        this.regions = regions;
+        this.chunkCells = chunkCells;
+        this.gridCells = gridCells;
+        this.unbounded = unbounded;
+    }
+
+    /**
+     * Builds a new index over the given regions. All regions are expected to belong to the
+     * same world.
+     *
+     * @param regions The regions to index.
+     * @return The built index.
+     */
+    public static RegionIndex build(Collection<ProtectedRegion> regions) {
+        LongObjectMap<Cell> chunkCells = new LongObjectMap<>(regions.size() * 16);
+        LongObjectMap<Cell> gridCells = new LongObjectMap<>(0);
+        List<ProtectedRegion> unbounded = new ArrayList<>();
+        for (ProtectedRegion region : regions) {
+            add(region, chunkCells, gridCells, unbounded);
+        }
+        return new RegionIndex(
+                Collections.unmodifiableList(new ArrayList<>(regions)),
+                chunkCells,
+                gridCells,
+                unbounded.toArray(NO_REGIONS)
+        );
+    }
+
+    /**
+     * Returns a copy of this index in which one region has been replaced. Only the cells
+     * covered by the previous or the updated region are reclassified; all other cells are
+     * shared with this index.
+     *
+     * @param previous The region to remove, or {@code null} to only add a region.
+     * @param updated  The region to add, or {@code null} to only remove a region.
+     * @return The updated index.
+     */
+    public RegionIndex replace(ProtectedRegion previous, ProtectedRegion updated) {
+        LongObjectMap<Cell> newChunkCells = chunkCells.copy();
+        LongObjectMap<Cell> newGridCells = gridCells.copy();
+        List<ProtectedRegion> newUnbounded = new ArrayList<>(List.of(unbounded));
+        List<ProtectedRegion> newRegions = new ArrayList<>(regions);
+
+        int position = newRegions.size();
+        if (previous != null && newRegions.remove(previous)) {
+            position = Math.min(position, regions.indexOf(previous));
+            remove(previous, newChunkCells, newGridCells, newUnbounded);
+        }
+        if (updated != null) {
+            newRegions.add(Math.min(position, newRegions.size()), updated);
+            add(updated, newChunkCells, newGridCells, newUnbounded);
+        }
+        return new RegionIndex(
+                Collections.unmodifiableList(newRegions),
+                newChunkCells,
+                newGridCells,
+                newUnbounded.toArray(NO_REGIONS)
+        );
+    }
+
+    /**
+     * Checks whether the given position lies within any indexed region.
+     *
+     * @param x The X coordinate.
+     * @param y The Y coordinate.
+     * @param z The Z coordinate.
+     * @return {@code true} if the position is protected, {@code false} otherwise.
+     */
+    public boolean isProtected(double x, double y, double z) {
+        return regionAt(x, y, z) != null;
+    }
+
+    /**
+     * Checks whether the given position lies within any indexed region protecting against one
+     * of the given categories.
+     *
+     * @param x    The X coordinate.
+     * @param y    The Y coordinate.
+     * @param z    The Z coordinate.
+     * @param mask The bits of the {@link RegionFlag}s to check.
+     * @return {@code true} if the position is protected against the categories, {@code false} otherwise.
+     */
+    public boolean isProtected(double x, double y, double z, int mask) {
+        return find((int) Math.floor(x), (int) Math.floor(z), x, y, z, mask) != null;
+    }
+
+    /**
+     * Checks whether the given block lies within any indexed region. This overload works on
+     * block coordinates directly and skips the rounding of the double variant.
+     *
+     * @param blockX The block X coordinate.
+     * @param blockY The block Y coordinate.
+     * @param blockZ The block Z coordinate.
+     * @return {@code true} if the block is protected, {@code false} otherwise.
+     */
+    public boolean isProtected(int blockX, int blockY, int blockZ) {
+        return find(blockX, blockZ, blockX, blockY, blockZ, RegionFlag.ANY_REGION) != null;
+    }
+
+    /**
+     * Checks whether the given block lies within any indexed region protecting against one of
+     * the given categories.
+     *
+     * @param blockX The block X coordinate.
+     * @param blockY The block Y coordinate.
+     * @param blockZ The block Z coordinate.
+     * @param mask   The bits of the {@link RegionFlag}s to check.
+     * @return {@code true} if the block is protected against the categories, {@code false} otherwise.
+     */
+    public boolean isProtected(int blockX, int blockY, int blockZ, int mask) {
+        return find(blockX, blockZ, blockX, blockY, blockZ, mask) != null;
+    }
+
+    /**
+     * Finds the first indexed region containing the given position. Positions in a cell that
+     * lies entirely inside a region are answered without any shape math.
+     *
+     * @param x The X coordinate.
+     * @param y The Y coordinate.
+     * @param z The Z coordinate.
+     * @return The containing region, or {@code null} if the position is not protected.
+     */
+    public ProtectedRegion regionAt(double x, double y, double z) {
+        return find((int) Math.floor(x), (int) Math.floor(z), x, y, z, RegionFlag.ANY_REGION);
+    }
+
+    /**
+     * Checks a batch of block positions at once, as packed by
+     * {@link CoordinateKeys#blockKey(int, int, int)}. The bounding box of the batch is classified
+     * first, so a batch entirely outside or inside the regions is answered without testing any
+     * single position. Otherwise every chunk is classified once per run of positions in it,
+     * and only positions in chunks on a region boundary are tested individually.
+     *
+     * @param positions The packed block positions.
+     * @param count     The number of positions to check, starting at index {@code 0}.
+     * @param mask      The bits of the {@link RegionFlag}s to check.
+     * @param result    Receives the results: bit {@code i} is set if and only if
+     *                  {@code positions[i]} is protected. Bits from {@code count} on are left untouched.
+     */
+    public void isProtected(long[] positions, int count, int mask, BitSet result) {
+        result.clear(0, count);
+        if (count == 0) {
+            return;
+        }
+
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            long position = positions[i];
+            int x = CoordinateKeys.blockKeyX(position);
+            int y = CoordinateKeys.blockKeyY(position);
+            int z = CoordinateKeys.blockKeyZ(position);
+            minX = Math.min(minX, x);
+            maxX = Math.max(maxX, x);
+            minY = Math.min(minY, y);
+            maxY = Math.max(maxY, y);
+            minZ = Math.min(minZ, z);
+            maxZ = Math.max(maxZ, z);
+        }
+        ChunkClassification whole = classifyArea(minX, minY, minZ, maxX, maxY, maxZ, mask);
+        if (whole == ChunkClassification.OUTSIDE) {
+            return;
+        }
+        if (whole == ChunkClassification.INSIDE) {
+            result.set(0, count);
+            return;
+        }
+
+        // Batches such as schematic pastes arrive in runs of positions within the same chunk
+        long lastChunk = 0;
+        ChunkClassification chunkClassification = null;
+        for (int i = 0; i < count; i++) {
+            long position = positions[i];
+            int x = CoordinateKeys.blockKeyX(position);
+            int y = CoordinateKeys.blockKeyY(position);
+            int z = CoordinateKeys.blockKeyZ(position);
+            long chunk = CoordinateKeys.chunkKeyOfBlock(x, z);
+            if (chunkClassification == null || chunk != lastChunk) {
+                chunkClassification = classifyChunk(x >> CHUNK_SHIFT, z >> CHUNK_SHIFT, mask);
+                lastChunk = chunk;
+            }
+            if (chunkClassification == ChunkClassification.INSIDE
+                    || (chunkClassification == ChunkClassification.BOUNDARY && isProtected(x, y, z, mask))) {
+                result.set(i);
+            }
+        }
+    }
+
+    /**
+     * Returns every indexed region containing the given position, rather than just the first.
+     * A position outside all regions returns a shared empty array without allocating.
+     *
+     * @param x The X coordinate.
+     * @param y The Y coordinate.
+     * @param z The Z coordinate.
+     * @return The containing regions, in no particular order. The array must not be modified.
+     */
+    public ProtectedRegion[] regionsAt(double x, double y, double z) {
+        int blockX = (int) Math.floor(x);
+        int blockZ = (int) Math.floor(z);
+        List<ProtectedRegion> matches = collect(chunkCells.get(CoordinateKeys.chunkKeyOfBlock(blockX, blockZ)), x, y, z, null);
+        if (gridCells.size() > 0) {
+            long cellKey = CoordinateKeys.chunkKey(blockX >> GRID_SHIFT, blockZ >> GRID_SHIFT);
+            matches = collect(gridCells.get(cellKey), x, y, z, matches);
+        }
+        matches = collect(unbounded, x, y, z, matches);
+        return matches == null ? NO_REGIONS : matches.toArray(NO_REGIONS);
+    }
+
+    private static List<ProtectedRegion> collect(Cell cell, double x, double y, double z, List<ProtectedRegion> matches) {
+        if (cell == null) {
+            return matches;
+        }
+        for (ProtectedRegion region : cell.inside) {
+            if (matches == null) {
+                matches = new ArrayList<>(2);
+            }
+            matches.add(region);
+        }
+        return collect(cell.boundary, x, y, z, matches);
+    }
+
+    private static List<ProtectedRegion> collect(ProtectedRegion[] candidates, double x, double y, double z,
+                                                 List<ProtectedRegion> matches) {
+        for (ProtectedRegion region : candidates) {
+            if (region.contains(x, y, z)) {
+                if (matches == null) {
+                    matches = new ArrayList<>(2);
+                }
+                matches.add(region);
+            }
+        }
+        return matches;
+    }
+
+    private ProtectedRegion find(int blockX, int blockZ, double x, double y, double z, int mask) {
+        ProtectedRegion match = query(chunkCells.get(CoordinateKeys.chunkKeyOfBlock(blockX, blockZ)), x, y, z, mask);
+        if (match != null) {
+            return match;
+        }
+        if (gridCells.size() > 0) {
+            long cellKey = CoordinateKeys.chunkKey(blockX >> GRID_SHIFT, blockZ >> GRID_SHIFT);
+            match = query(gridCells.get(cellKey), x, y, z, mask);
+            if (match != null) {
+                return match;
+            }
+        }
+        return firstContaining(unbounded, x, y, z, mask);
+    }
+
+    /**
+     * Removes every protected position from the given list. The bounding box of the positions
+     * is classified once: if it lies entirely outside all regions the list is left untouched,
+     * and if it lies entirely inside the list is cleared. Only lists straddling a region
+     * boundary fall back to checking each position.
+     *
+     * @param positions The mutable list of positions to filter.
+     * @param blockX    Extracts the block X coordinate of a position.
+     * @param blockY    Extracts the block Y coordinate of a position.
+     * @param blockZ    Extracts the block Z coordinate of a position.
+     * @param <T>       The type of the positions, such as a block.
+     */
+    public <T> void removeProtected(List<T> positions, ToIntFunction<? super T> blockX,
+                                    ToIntFunction<? super T> blockY, ToIntFunction<? super T> blockZ) {
+        removeProtected(positions, blockX, blockY, blockZ, RegionFlag.ANY_REGION);
+    }
+
+    /**
+     * Removes every position protected against one of the given categories from the list,
+     * classifying the bounding box of the positions once like
+     * {@link #removeProtected(List, ToIntFunction, ToIntFunction, ToIntFunction)}.
+     *
+     * @param positions The mutable list of positions to filter.
+     * @param blockX    Extracts the block X coordinate of a position.
+     * @param blockY    Extracts the block Y coordinate of a position.
+     * @param blockZ    Extracts the block Z coordinate of a position.
+     * @param mask      The bits of the {@link RegionFlag}s to check.
+     * @param <T>       The type of the positions, such as a block.
+     */
+    public <T> void removeProtected(List<T> positions, ToIntFunction<? super T> blockX,
+                                    ToIntFunction<? super T> blockY, ToIntFunction<? super T> blockZ, int mask) {
+        if (positions.isEmpty()) {
+            return;
+        }
+
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (int i = 0, size = positions.size(); i < size; i++) {
+            T position = positions.get(i);
+            int x = blockX.applyAsInt(position);
+            int y = blockY.applyAsInt(position);
+            int z = blockZ.applyAsInt(position);
+            minX = Math.min(minX, x);
+            maxX = Math.max(maxX, x);
+            minY = Math.min(minY, y);
+            maxY = Math.max(maxY, y);
+            minZ = Math.min(minZ, z);
+            maxZ = Math.max(maxZ, z);
+        }
+
+        ChunkClassification classification = classifyArea(minX, minY, minZ, maxX, maxY, maxZ, mask);
+        if (classification == ChunkClassification.INSIDE) {
+            positions.clear();
+        } else if (classification == ChunkClassification.BOUNDARY) {
+            positions.removeIf(position -> isProtected(
+                    blockX.applyAsInt(position), blockY.applyAsInt(position), blockZ.applyAsInt(position), mask));
+        }
+    }
+
+    /**
+     * Classifies the full height of the given chunk against all indexed regions. A chunk
+     * crossed by a region with vertical limits is never reported as inside.
+     *
+     * @param chunkX The chunk X coordinate.
+     * @param chunkZ The chunk Z coordinate.
+     * @return Whether the chunk is fully inside, fully outside, or on the boundary of the regions.
+     */
+    public ChunkClassification classifyChunk(int chunkX, int chunkZ) {
+        return classifyChunk(chunkX, chunkZ, RegionFlag.ANY_REGION);
+    }
+
+    /**
+     * Classifies the full height of the given chunk against the indexed regions protecting
+     * against one of the given categories.
+     *
+     * @param chunkX The chunk X coordinate.
+     * @param chunkZ The chunk Z coordinate.
+     * @param mask   The bits of the {@link RegionFlag}s to check.
+     * @return Whether the chunk is fully inside, fully outside, or on the boundary of those regions.
+     */
+    public ChunkClassification classifyChunk(int chunkX, int chunkZ, int mask) {
+        double minX = chunkX << CHUNK_SHIFT;
+        double minZ = chunkZ << CHUNK_SHIFT;
+        return classifyWithinChunk(chunkX, chunkZ, minX, Double.NEGATIVE_INFINITY, minZ,
+                minX + (1 << CHUNK_SHIFT), Double.POSITIVE_INFINITY, minZ + (1 << CHUNK_SHIFT), mask);
+    }
+
+    /**
+     * Classifies a box of block positions against all indexed regions. The box is split along
+     * chunk borders and each part is classified against the regions of its chunk, so a box
+     * spanning several fully protected chunks is reported as inside even if those chunks belong
+     * to different regions. Boxes spanning more than {@link #MAX_AREA_CHUNKS} chunks are
+     * reported as boundary without being examined.
+     *
+     * @param minBlockX The minimum block X coordinate of the box, inclusive.
+     * @param minBlockY The minimum block Y coordinate of the box, inclusive.
+     * @param minBlockZ The minimum block Z coordinate of the box, inclusive.
+     * @param maxBlockX The maximum block X coordinate of the box, inclusive.
+     * @param maxBlockY The maximum block Y coordinate of the box, inclusive.
+     * @param maxBlockZ The maximum block Z coordinate of the box, inclusive.
+     * @return Whether every, no, or only some of the block positions in the box are protected.
+     */
+    public ChunkClassification classifyArea(int minBlockX, int minBlockY, int minBlockZ, int maxBlockX, int maxBlockY, int maxBlockZ) {
+        return classifyArea(minBlockX, minBlockY, minBlockZ, maxBlockX, maxBlockY, maxBlockZ, RegionFlag.ANY_REGION);
+    }
+
+    /**
+     * Classifies a box of block positions against the indexed regions protecting against one
+     * of the given categories, like {@link #classifyArea(int, int, int, int, int, int)}.
+     *
+     * @param minBlockX The minimum block X coordinate of the box, inclusive.
+     * @param minBlockY The minimum block Y coordinate of the box, inclusive.
+     * @param minBlockZ The minimum block Z coordinate of the box, inclusive.
+     * @param maxBlockX The maximum block X coordinate of the box, inclusive.
+     * @param maxBlockY The maximum block Y coordinate of the box, inclusive.
+     * @param maxBlockZ The maximum block Z coordinate of the box, inclusive.
+     * @param mask      The bits of the {@link RegionFlag}s to check.
+     * @return Whether every, no, or only some of the block positions in the box are protected.
+     */
+    public ChunkClassification classifyArea(int minBlockX, int minBlockY, int minBlockZ, int maxBlockX, int maxBlockY, int maxBlockZ,
+                                            int mask) {
+        int minChunkX = minBlockX >> CHUNK_SHIFT;
+        int maxChunkX = maxBlockX >> CHUNK_SHIFT;
+        int minChunkZ = minBlockZ >> CHUNK_SHIFT;
+        int maxChunkZ = maxBlockZ >> CHUNK_SHIFT;
+        if ((long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1) > MAX_AREA_CHUNKS) {
+            return ChunkClassification.BOUNDARY;
+        }
+
+        boolean anyInside = false;
+        boolean anyOutside = false;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                // Blocks are queried at their corner, so the box spans [min, max + 1) on every axis
+                ChunkClassification part = classifyWithinChunk(chunkX, chunkZ,
+                        Math.max(minBlockX, chunkX << CHUNK_SHIFT),
+                        minBlockY,
+                        Math.max(minBlockZ, chunkZ << CHUNK_SHIFT),
+                        Math.min(maxBlockX, (chunkX << CHUNK_SHIFT) + 15) + 1.0,
+                        maxBlockY + 1.0,
+                        Math.min(maxBlockZ, (chunkZ << CHUNK_SHIFT) + 15) + 1.0,
+                        mask);
+                if (part == ChunkClassification.BOUNDARY) {
+                    return part;
+                }
+                anyInside |= part == ChunkClassification.INSIDE;
+                anyOutside |= part == ChunkClassification.OUTSIDE;
+                if (anyInside && anyOutside) {
+                    return ChunkClassification.BOUNDARY;
+                }
+            }
+        }
+        return anyInside ? ChunkClassification.INSIDE : ChunkClassification.OUTSIDE;
+    }
+
+    /**
+     * Classifies a half-open box lying within a single chunk against the regions that can
+     * reach that chunk.
+     */
+    private ChunkClassification classifyWithinChunk(int chunkX, int chunkZ, double minX, double minY, double minZ,
+                                                    double maxX, double maxY, double maxZ, int mask) {
+        Cell cell = chunkCells.get(CoordinateKeys.chunkKey(chunkX, chunkZ));
+        if (cell != null && (cell.insideMask & mask) != 0) {
+            return ChunkClassification.INSIDE;
+        }
+        boolean boundary = false;
+        if (cell != null) {
+            ChunkClassification classification = classify(cell.boundary, minX, minY, minZ, maxX, maxY, maxZ, mask);
+            if (classification == ChunkClassification.INSIDE) {
+                return classification;
+            }
+            boundary = classification == ChunkClassification.BOUNDARY;
+        }
+
+        if (gridCells.size() > 0) {
+            int shift = GRID_SHIFT - CHUNK_SHIFT;
+            Cell gridCell = gridCells.get(CoordinateKeys.chunkKey(chunkX >> shift, chunkZ >> shift));
+            if (gridCell != null) {
+                if ((gridCell.insideMask & mask) != 0) {
+                    return ChunkClassification.INSIDE;
+                }
+                ChunkClassification classification = classify(gridCell.boundary, minX, minY, minZ, maxX, maxY, maxZ, mask);
+                if (classification == ChunkClassification.INSIDE) {
+                    return classification;
+                }
+                boundary |= classification == ChunkClassification.BOUNDARY;
+            }
+        }
+        if (unbounded.length > 0) {
+            ChunkClassification classification = classify(unbounded, minX, minY, minZ, maxX, maxY, maxZ, mask);
+            if (classification == ChunkClassification.INSIDE) {
+                return classification;
+            }
+            boundary |= classification == ChunkClassification.BOUNDARY;
+        }
+        return boundary ? ChunkClassification.BOUNDARY : ChunkClassification.OUTSIDE;
+    }
+
+    /**
+     * Returns all regions held by this index.
+     *
+     * @return An unmodifiable list of the indexed regions.
+     */
+    public List<ProtectedRegion> getRegions() {
+        return regions;
+    }
+
+    private static ProtectedRegion query(Cell cell, double x, double y, double z, int mask) {
+        if (cell == null) {
+            return null;
+        }
+        if ((cell.insideMask & mask) != 0) {
+            for (ProtectedRegion region : cell.inside) {
+                if ((region.mask & mask) != 0) {
+                    return region;
+                }
+            }
+        }
+        return firstContaining(cell.boundary, x, y, z, mask);
+    }
+
+    private static ProtectedRegion firstContaining(ProtectedRegion[] candidates, double x, double y, double z, int mask) {
+        for (ProtectedRegion region : candidates) {
+            if ((region.mask & mask) != 0 && region.contains(x, y, z)) {
+                return region;
+            }
+        }
+        return null;
+    }
+
+    private static ChunkClassification classify(ProtectedRegion[] candidates, double minX, double minY, double minZ,
+                                                double maxX, double maxY, double maxZ, int mask) {
+        boolean boundary = false;
+        for (ProtectedRegion region : candidates) {
+            if ((region.mask & mask) == 0) {
+                continue;
+            }
+            RegionShape shape = region.getShape();
+            if (shape.containsBox(minX, minY, minZ, maxX, maxY, maxZ)) {
+                return ChunkClassification.INSIDE;
+            }
+            boundary |= shape.intersectsBox(minX, minY, minZ, maxX, maxY, maxZ);
+        }
+        return boundary ? ChunkClassification.BOUNDARY : ChunkClassification.OUTSIDE;
+    }
+
+    private static void add(ProtectedRegion region, LongObjectMap<Cell> chunkCells,
+                            LongObjectMap<Cell> gridCells, List<ProtectedRegion> unbounded) {
+        if (spans(region, CHUNK_SHIFT) <= MAX_CHUNK_CELLS) {
+            updateCells(chunkCells, region, CHUNK_SHIFT, true);
+        } else if (spans(region, GRID_SHIFT) <= MAX_GRID_CELLS) {
+            updateCells(gridCells, region, GRID_SHIFT, true);
+        } else {
+            unbounded.add(region);
+        }
+    }
+
+    private static void remove(ProtectedRegion region, LongObjectMap<Cell> chunkCells,
+                               LongObjectMap<Cell> gridCells, List<ProtectedRegion> unbounded) {
+        if (spans(region, CHUNK_SHIFT) <= MAX_CHUNK_CELLS) {
+            updateCells(chunkCells, region, CHUNK_SHIFT, false);
+        } else if (spans(region, GRID_SHIFT) <= MAX_GRID_CELLS) {
+            updateCells(gridCells, region, GRID_SHIFT, false);
+        } else {
+            unbounded.remove(region);
+        }
+    }
+
+    private static long spans(ProtectedRegion region, int shift) {
+        long width = (region.getMaxBlockX() >> shift) - (region.getMinBlockX() >> shift) + 1L;
+        long depth = (region.getMaxBlockZ() >> shift) - (region.getMinBlockZ() >> shift) + 1L;
+        return width * depth;
+    }
+
+    private static void updateCells(LongObjectMap<Cell> cells, ProtectedRegion region, int shift, boolean adding) {
+        for (int cellX = region.getMinBlockX() >> shift; cellX <= region.getMaxBlockX() >> shift; cellX++) {
+            for (int cellZ = region.getMinBlockZ() >> shift; cellZ <= region.getMaxBlockZ() >> shift; cellZ++) {
+                long key = CoordinateKeys.chunkKey(cellX, cellZ);
+                Cell existing = cells.get(key);
+                List<ProtectedRegion> members = new ArrayList<>();
+                if (existing != null) {
+                    Collections.addAll(members, existing.members);
+                }
+                if (adding) {
+                    members.add(region);
+                } else {
+                    members.remove(region);
+                }
+
+                if (members.isEmpty()) {
+                    cells.remove(key);
+                } else {
+                    cells.put(key, Cell.classify(members, cellX << shift, cellZ << shift, 1 << shift));
+                }
+            }
+        }
+    }
+
+    /**
+     * A precomputed bucket of the index, holding the regions that overlap one chunk or grid
+     * cell together with its classification.
+     */
+    private static final class Cell {
+
+        /**
+         * Every region whose bounds overlap the cell, kept so the cell can be reclassified.
+         */
+        private final ProtectedRegion[] members;
+
+        /**
+         * The regions covering the full height of the whole cell.
+         */
+        private final ProtectedRegion[] inside;
+
+        /**
+         * The combined mask of the regions in {@link #inside}, or {@code 0} if there are none.
+         */
+        private final int insideMask;
+
+        /**
+         * The regions whose outline crosses the cell, or that are limited in height, and
+         * therefore need per-position checks.
+         */
+        private final ProtectedRegion[] boundary;
+
+        private Cell(ProtectedRegion[] members, ProtectedRegion[] inside, ProtectedRegion[] boundary) {
+            this.members = members;
+            this.inside = inside;
+            this.boundary = boundary;
+            int mask = 0;
+            for (ProtectedRegion region : inside) {
+                mask |= region.mask;
+            }
+            this.insideMask = mask;
+        }
+
+        private static Cell classify(List<ProtectedRegion> members, int minX, int minZ, int size) {
+            double maxX = (double) minX + size;
+            double maxZ = (double) minZ + size;
+            List<ProtectedRegion> inside = new ArrayList<>();
+            List<ProtectedRegion> boundary = new ArrayList<>();
+            for (ProtectedRegion region : members) {
+                RegionShape shape = region.getShape();
+                if (shape.containsBox(minX, Double.NEGATIVE_INFINITY, minZ, maxX, Double.POSITIVE_INFINITY, maxZ)) {
+                    inside.add(region);
+                } else if (shape.intersectsBox(minX, Double.NEGATIVE_INFINITY, minZ, maxX, Double.POSITIVE_INFINITY, maxZ)) {
+                    boundary.add(region);
+                }
+            }
+            return new Cell(members.toArray(NO_REGIONS), inside.toArray(NO_REGIONS), boundary.toArray(NO_REGIONS));
+        }
+    }
+}
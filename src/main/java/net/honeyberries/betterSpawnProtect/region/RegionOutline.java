@@ -0,0 +1,199 @@
+package net.honeyberries.betterSpawnProtect.region;
+
+/**
+ * The outline of a {@link RegionShape} on the X/Z plane, sampled into points about
+ * {@value #SPACING} block apart, as drawn by {@code /bsp show}. The points are computed once
+ * per shape by {@link RegionShape#getOutline()}; since shapes are immutable, any change of
+ * geometry produces a new shape and with it a new outline.
+ * <p>
+ * Each point is drawn at every fixed height in {@link #level(int)}, which are the finite Y
+ * limits of the shape or the equator of a sphere. Shapes open at the top or bottom are also
+ * drawn at the height of each viewer, see {@link #followsViewer()}.
+ */
+public final class RegionOutline {
+
+    /**
+     * The distance between two neighbouring points, in blocks.
+     */
+    static final double SPACING = 1.0;
+
+    /**
+     * The maximum number of points of one outline. Longer outlines are sampled more sparsely.
+     */
+    static final int MAX_POINTS = 1 << 16;
+
+    private final double[] xs, zs;
+    private final double[] levels;
+    private final boolean followsViewer;
+    private final double minY, maxY;
+
+    private RegionOutline(double[] xs, double[] zs, double[] levels, boolean followsViewer, double minY, double maxY) {
+        this.xs = xs;
+        this.zs = zs;
+        this.levels = levels;
+        this.followsViewer = followsViewer;
+        this.minY = minY;
+        this.maxY = maxY;
+    }
+
+    /**
+     * Samples the outline of the given shape.
+     *
+     * @param shape The shape to outline.
+     * @return The outline.
+     */
+    static RegionOutline of(RegionShape shape) {
+        if (shape instanceof SphereShape sphere) {
+            double[][] points = circle(sphere.cx, sphere.cz, sphere.radius);
+            return new RegionOutline(points[0], points[1], new double[]{sphere.cy}, false, sphere.minY, sphere.maxY);
+        }
+
+        double[][] points;
+        if (shape instanceof CylinderShape cylinder) {
+            points = circle(cylinder.cx, cylinder.cz, cylinder.radius);
+        } else if (shape instanceof CuboidShape cuboid) {
+            points = polyline(new double[]{cuboid.minX, cuboid.maxX, cuboid.maxX, cuboid.minX},
+                    new double[]{cuboid.minZ, cuboid.minZ, cuboid.maxZ, cuboid.maxZ});
+        } else if (shape instanceof PolygonShape polygon) {
+            points = polyline(polygon.xs, polygon.zs);
+        } else {
+            throw new IllegalArgumentException("Unsupported shape " + shape.getClass().getSimpleName());
+        }
+
+        boolean lowerLimit = shape.minY != Double.NEGATIVE_INFINITY;
+        boolean upperLimit = shape.maxY != Double.POSITIVE_INFINITY;
+        double[] levels;
+        if (lowerLimit && upperLimit) {
+            levels = new double[]{shape.minY, shape.maxY};
+        } else if (lowerLimit) {
+            levels = new double[]{shape.minY};
+        } else if (upperLimit) {
+            levels = new double[]{shape.maxY};
+        } else {
+            levels = new double[0];
+        }
+        return new RegionOutline(points[0], points[1], levels, !lowerLimit || !upperLimit, shape.minY, shape.maxY);
+    }
+
+    /**
+     * Samples a circle. The trigonometry runs once here, never while drawing.
+     */
+    private static double[][] circle(double cx, double cz, double radius) {
+        int count = (int) Math.min(MAX_POINTS, Math.max(8, Math.ceil(2 * Math.PI * radius / SPACING)));
+        double[] xs = new double[count];
+        double[] zs = new double[count];
+        for (int i = 0; i < count; i++) {
+            double angle = 2 * Math.PI * i / count;
+            xs[i] = cx + radius * Math.cos(angle);
+            zs[i] = cz + radius * Math.sin(angle);
+        }
+        return new double[][]{xs, zs};
+    }
+
+    /**
+     * Samples the edges of a closed polygon, each edge from its first vertex up to but
+     * excluding the next one.
+     */
+    private static double[][] polyline(double[] vertexXs, double[] vertexZs) {
+        int vertices = vertexXs.length;
+        double perimeter = 0;
+        for (int i = 0; i < vertices; i++) {
+            int next = (i + 1) % vertices;
+            perimeter += Math.hypot(vertexXs[next] - vertexXs[i], vertexZs[next] - vertexZs[i]);
+        }
+        double spacing = Math.max(SPACING, perimeter / (MAX_POINTS - vertices));
+
+        int[] steps = new int[vertices];
+        int count = 0;
+        for (int i = 0; i < vertices; i++) {
+            int next = (i + 1) % vertices;
+            double length = Math.hypot(vertexXs[next] - vertexXs[i], vertexZs[next] - vertexZs[i]);
+            steps[i] = Math.max(1, (int) Math.ceil(length / spacing));
+            count += steps[i];
+        }
+
+        double[] xs = new double[count];
+        double[] zs = new double[count];
+        int point = 0;
+        for (int i = 0; i < vertices; i++) {
+            int next = (i + 1) % vertices;
+            double dx = (vertexXs[next] - vertexXs[i]) / steps[i];
+            double dz = (vertexZs[next] - vertexZs[i]) / steps[i];
+            for (int step = 0; step < steps[i]; step++) {
+                xs[point] = vertexXs[i] + step * dx;
+                zs[point] = vertexZs[i] + step * dz;
+                point++;
+            }
+        }
+        return new double[][]{xs, zs};
+    }
+
+    /**
+     * Returns the number of points of the outline.
+     *
+     * @return The number of points.
+     */
+    public int size() {
+        return xs.length;
+    }
+
+    /**
+     * Returns the X coordinate of a point.
+     *
+     * @param point The index of the point, from {@code 0} to {@link #size()} exclusive.
+     * @return The X coordinate.
+     */
+    public double x(int point) {
+        return xs[point];
+    }
+
+    /**
+     * Returns the Z coordinate of a point.
+     *
+     * @param point The index of the point, from {@code 0} to {@link #size()} exclusive.
+     * @return The Z coordinate.
+     */
+    public double z(int point) {
+        return zs[point];
+    }
+
+    /**
+     * Returns the number of fixed heights at which the outline is drawn.
+     *
+     * @return The number of fixed heights.
+     */
+    public int levelCount() {
+        return levels.length;
+    }
+
+    /**
+     * Returns a fixed height at which the outline is drawn.
+     *
+     * @param level The index of the height, from {@code 0} to {@link #levelCount()} exclusive.
+     * @return The Y coordinate.
+     */
+    public double level(int level) {
+        return levels[level];
+    }
+
+    /**
+     * Returns whether the outline is also drawn at the height of each viewer, because the shape
+     * has no upper or no lower limit.
+     *
+     * @return {@code true} if the outline follows the viewer's height, {@code false} otherwise.
+     */
+    public boolean followsViewer() {
+        return followsViewer;
+    }
+
+    /**
+     * Clamps a viewer's height into the Y range of the shape, so that an outline that follows
+     * the viewer is never drawn above or below the shape.
+     *
+     * @param y The viewer's Y coordinate.
+     * @return The height to draw the outline at.
+     */
+    public double clampY(double y) {
+        return Math.max(minY, Math.min(maxY, y));
+    }
+}
@@ -0,0 +1,308 @@
+package net.honeyberries.betterSpawnProtect.region;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The geometry of a {@link ProtectedRegion}. Each shape is compiled once into an immutable
+ * object whose {@link #contains(double, double, double)} first rejects positions outside its
+ * bounding box and its Y range, and only then runs the shape-specific test.
+ * <p>
+ * Vertical limits are optional. A shape without them extends through the whole height of the
+ * world, like the original circular spawn protection, and is the only kind that lets a
+ * {@link RegionIndex} cell be answered without any per-position test.
+ * <p>
+ * All rectangle and box arguments are half-open, {@code [min, max)}, so that the box of a
+ * chunk spans {@code [16 * chunkX, 16 * chunkX + 16)}. The box tests must be conservative:
+ * {@code containsBox} may only return {@code true} if every point is inside, and
+ * {@code intersectsBox} may only return {@code false} if no point is.
+ */
+public abstract class RegionShape {
+
+    /**
+     * The bounding box of the shape on the X/Z plane, inclusive.
+     */
+    final double minX, minZ, maxX, maxZ;
+
+    /**
+     * The Y range of the shape, from {@code minY} inclusive to {@code maxY} exclusive. Both are
+     * infinite for shapes without vertical limits.
+     */
+    final double minY, maxY;
+
+    /**
+     * The outline of this shape, sampled on first use. Racing threads may each sample it, but
+     * they compute equal outlines, so either result may be kept.
+     */
+    private volatile RegionOutline outline;
+
+    RegionShape(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Creates a vertical cylinder, the shape of the original spawn protection.
+     *
+     * @param cx        The X coordinate of the center.
+     * @param cy        The Y coordinate of the center. It does not limit the cylinder.
+     * @param cz        The Z coordinate of the center.
+     * @param radius    The radius. Negative values are treated as zero.
+     * @param minBlockY The lowest protected block Y, or {@link Integer#MIN_VALUE} for no limit.
+     * @param maxBlockY The highest protected block Y, or {@link Integer#MAX_VALUE} for no limit.
+     * @return The cylinder.
+     */
+    public static RegionShape cylinder(double cx, double cy, double cz, double radius, int minBlockY, int maxBlockY) {
+        return new CylinderShape(cx, cy, cz, radius, lowerBound(minBlockY), upperBound(maxBlockY));
+    }
+
+    /**
+     * Creates a sphere.
+     *
+     * @param cx     The X coordinate of the center.
+     * @param cy     The Y coordinate of the center.
+     * @param cz     The Z coordinate of the center.
+     * @param radius The radius. Negative values are treated as zero.
+     * @return The sphere.
+     */
+    public static RegionShape sphere(double cx, double cy, double cz, double radius) {
+        return new SphereShape(cx, cy, cz, radius);
+    }
+
+    /**
+     * Creates an axis-aligned box covering the given blocks. The corners may be given in any
+     * order.
+     *
+     * @param x1 The block X coordinate of one corner.
+     * @param y1 The block Y coordinate of one corner, or {@link Integer#MIN_VALUE} for no lower limit.
+     * @param z1 The block Z coordinate of one corner.
+     * @param x2 The block X coordinate of the opposite corner.
+     * @param y2 The block Y coordinate of the opposite corner, or {@link Integer#MAX_VALUE} for no upper limit.
+     * @param z2 The block Z coordinate of the opposite corner.
+     * @return The cuboid.
+     */
+    public static RegionShape cuboid(int x1, int y1, int z1, int x2, int y2, int z2) {
+        return new CuboidShape(
+                Math.min(x1, x2), lowerBound(Math.min(y1, y2)), Math.min(z1, z2),
+                Math.max(x1, x2) + 1.0, upperBound(Math.max(y1, y2)), Math.max(z1, z2) + 1.0);
+    }
+
+    /**
+     * Creates a vertical prism over a simple polygon on the X/Z plane.
+     *
+     * @param xs        The X coordinates of the vertices, in order.
+     * @param zs        The Z coordinates of the vertices, in order.
+     * @param minBlockY The lowest protected block Y, or {@link Integer#MIN_VALUE} for no limit.
+     * @param maxBlockY The highest protected block Y, or {@link Integer#MAX_VALUE} for no limit.
+     * @return The polygon.
+     * @throws IllegalArgumentException If fewer than three vertices are given.
+     */
+    public static RegionShape polygon(double[] xs, double[] zs, int minBlockY, int maxBlockY) {
+        return new PolygonShape(xs.clone(), zs.clone(), lowerBound(minBlockY), upperBound(maxBlockY));
+    }
+
+    /**
+     * Converts an inclusive lowest block Y into the lower end of a Y range.
+     */
+    static double lowerBound(int minBlockY) {
+        return minBlockY == Integer.MIN_VALUE ? Double.NEGATIVE_INFINITY : minBlockY;
+    }
+
+    /**
+     * Converts an inclusive highest block Y into the exclusive upper end of a Y range.
+     */
+    static double upperBound(int maxBlockY) {
+        return maxBlockY == Integer.MAX_VALUE ? Double.POSITIVE_INFINITY : maxBlockY + 1.0;
+    }
+
+    /**
+     * Checks whether the given position lies within this shape.
+     *
+     * @param x The X coordinate.
+     * @param y The Y coordinate.
+     * @param z The Z coordinate.
+     * @return {@code true} if the position is inside the shape, {@code false} otherwise.
+     */
+    public final boolean contains(double x, double y, double z) {
+        if (x < minX || x > maxX || z < minZ || z > maxZ || y < minY || y >= maxY) {
+            return false;
+        }
+        return test(x, y, z);
+    }
+
+    /**
+     * The shape-specific part of {@link #contains}, only called for positions within the
+     * bounding box and the Y range.
+     */
+    abstract boolean test(double x, double y, double z);
+
+    /**
+     * Checks whether the whole half-open rectangle lies within the shape's outline on the
+     * X/Z plane, ignoring its Y range.
+     */
+    abstract boolean outlineContains(double minX, double minZ, double maxX, double maxZ);
+
+    /**
+     * Checks whether any point of the half-open rectangle may lie within the shape's outline
+     * on the X/Z plane, ignoring its Y range.
+     */
+    abstract boolean outlineIntersects(double minX, double minZ, double maxX, double maxZ);
+
+    /**
+     * Checks whether the whole half-open box lies within this shape. Infinite Y bounds describe
+     * a full column, which only shapes without vertical limits can contain.
+     *
+     * @return {@code true} if every point of the box is inside the shape.
+     */
+    boolean containsBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        return minY >= this.minY && maxY <= this.maxY && outlineContains(minX, minZ, maxX, maxZ);
+    }
+
+    /**
+     * Checks whether any point of the half-open box may lie within this shape.
+     *
+     * @return {@code false} only if no point of the box is inside the shape.
+     */
+    boolean intersectsBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        return minY < this.maxY && maxY > this.minY
+                && minX <= this.maxX && maxX >= this.minX && minZ <= this.maxZ && maxZ >= this.minZ
+                && outlineIntersects(minX, minZ, maxX, maxZ);
+    }
+
+    /**
+     * Returns this shape as the keys of a region section in {@code config.yml}, in the form
+     * the configuration reads them back. This is used to export regions to YAML.
+     *
+     * @return The configuration keys of this shape, in a stable order.
+     */
+    public abstract Map<String, Object> toConfig();
+
+    /**
+     * Adds the {@code min-y} and {@code max-y} keys of this shape's Y limits, if it has any.
+     */
+    final void putYRange(Map<String, Object> config) {
+        if (minY != Double.NEGATIVE_INFINITY) {
+            config.put("min-y", (int) minY);
+        }
+        if (maxY != Double.POSITIVE_INFINITY) {
+            config.put("max-y", (int) maxY - 1);
+        }
+    }
+
+    /**
+     * Creates a configuration map with the given coordinates.
+     */
+    static Map<String, Object> point(double x, double y, double z) {
+        Map<String, Object> point = new LinkedHashMap<>();
+        point.put("x", x);
+        point.put("y", y);
+        point.put("z", z);
+        return point;
+    }
+
+    /**
+     * Returns the outline of this shape as drawn by {@code /bsp show}. It is sampled on the first
+     * call and cached for the lifetime of the shape.
+     *
+     * @return The outline.
+     */
+    public final RegionOutline getOutline() {
+        RegionOutline result = outline;
+        if (result == null) {
+            result = RegionOutline.of(this);
+            outline = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether this shape has a lower or upper Y limit.
+     *
+     * @return {@code true} if the shape does not extend through the whole height of the world.
+     */
+    public boolean isVerticallyBounded() {
+        return minY != Double.NEGATIVE_INFINITY || maxY != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the X coordinate of the center, which is the center of the bounding box unless
+     * the shape defines its own.
+     *
+     * @return The X coordinate of the center.
+     */
+    public double getCenterX() {
+        return (minX + maxX) / 2;
+    }
+
+    /**
+     * Returns the Y coordinate of the center, which is the middle of the Y range, or {@code 0}
+     * if the range is open at either end, unless the shape defines its own.
+     *
+     * @return The Y coordinate of the center.
+     */
+    public double getCenterY() {
+        return Double.isInfinite(minY) || Double.isInfinite(maxY) ? 0 : (minY + maxY) / 2;
+    }
+
+    /**
+     * Returns the Z coordinate of the center, which is the center of the bounding box unless
+     * the shape defines its own.
+     *
+     * @return The Z coordinate of the center.
+     */
+    public double getCenterZ() {
+        return (minZ + maxZ) / 2;
+    }
+
+    /**
+     * Returns the smallest block X coordinate covered by this shape.
+     *
+     * @return The smallest block X coordinate covered by this shape.
+     */
+    public int getMinBlockX() {
+        return (int) Math.floor(minX);
+    }
+
+    /**
+     * Returns the largest block X coordinate covered by this shape.
+     *
+     * @return The largest block X coordinate covered by this shape.
+     */
+    public int getMaxBlockX() {
+        return (int) Math.floor(maxX);
+    }
+
+    /**
+     * Returns the smallest block Z coordinate covered by this shape.
+     *
+     * @return The smallest block Z coordinate covered by this shape.
+     */
+    public int getMinBlockZ() {
+        return (int) Math.floor(minZ);
+    }
+
+    /**
+     * Returns the largest block Z coordinate covered by this shape.
+     *
+     * @return The largest block Z coordinate covered by this shape.
+     */
+    public int getMaxBlockZ() {
+        return (int) Math.floor(maxZ);
+    }
+
+    /**
+     * Formats the Y range for {@link #toString()}.
+     */
+    String describeYRange() {
+        if (!isVerticallyBounded()) {
+            return "";
+        }
+        String low = Double.isInfinite(minY) ? "-inf" : String.valueOf((long) minY);
+        String high = Double.isInfinite(maxY) ? "+inf" : String.valueOf((long) maxY - 1);
+        return ", Y: " + low + ".." + high;
+    }
+}
@@ -0,0 +1,287 @@
+package net.honeyberries.betterSpawnProtect.region;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads and writes regions in a compact binary file, so that large numbers of regions can be
+ * loaded without parsing YAML. The file is read through a memory-mapped buffer and decoded
+ * straight into the compiled shapes, without any intermediate configuration tree.
+ * <p>
+ * The file starts with a fixed header: the magic number {@code BSPR}, the format version, the
+ * number of regions, the length of the payload and a CRC-32C checksum of the payload. The
+ * payload holds one record per region: its name and world as length-prefixed UTF-8 strings,
+ * the mask of its {@link RegionFlag}s, a shape tag, and the raw geometry of the shape. Stores
+ * of version 1 have no flags, and their regions protect against everything. A file with the
+ * wrong magic number, an unknown version, a mismatched length or a failing checksum is
+ * rejected as a whole.
+ */
+public final class RegionStore {
+
+    /**
+     * The magic number at the start of every region store, {@code BSPR} in ASCII.
+     */
+    static final int MAGIC = 0x42535052;
+
+    /**
+     * The current format version. Readers accept this version and {@link #VERSION_WITHOUT_FLAGS}.
+     */
+    static final int VERSION = 2;
+
+    /**
+     * The first format version, whose records have no flags.
+     */
+    static final int VERSION_WITHOUT_FLAGS = 1;
+
+    /**
+     * The size of the header in bytes: magic, version, region count, payload length and checksum.
+     */
+    static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+    private static final byte CYLINDER = 1;
+    private static final byte SPHERE = 2;
+    private static final byte CUBOID = 3;
+    private static final byte POLYGON = 4;
+
+    private RegionStore() {
+    }
+
+    /**
+     * Reads all regions from the given store.
+     *
+     * @param file The store to read.
+     * @return The regions, in the order they were written.
+     * @throws IOException If the file cannot be read, or is not a valid region store of a
+     *                     supported version.
+     */
+    public static List<ProtectedRegion> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Region store has an invalid size of " + size + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return decode(buffer);
+        }
+    }
+
+    /**
+     * Writes the given regions to the store, replacing it atomically so that readers never
+     * see a partially written file.
+     *
+     * @param file    The store to write.
+     * @param regions The regions to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(Path file, List<ProtectedRegion> regions) throws IOException {
+        ByteBuffer buffer = encode(regions);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Encodes the regions into a complete store, header included.
+     *
+     * @param regions The regions to encode.
+     * @return A buffer positioned at the start of the store.
+     */
+    static ByteBuffer encode(List<ProtectedRegion> regions) {
+        List<byte[]> strings = new ArrayList<>(regions.size() * 2);
+        int payloadSize = 0;
+        for (ProtectedRegion region : regions) {
+            byte[] name = utf8(region.getName());
+            byte[] world = utf8(region.getWorldName());
+            strings.add(name);
+            strings.add(world);
+            payloadSize += 2 * Short.BYTES + name.length + world.length + Integer.BYTES + 1 + shapeSize(region.getShape());
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payloadSize);
+        buffer.position(HEADER_SIZE);
+        for (int i = 0; i < regions.size(); i++) {
+            putString(buffer, strings.get(2 * i));
+            putString(buffer, strings.get(2 * i + 1));
+            buffer.putInt(regions.get(i).getFlags());
+            putShape(buffer, regions.get(i).getShape());
+        }
+
+        CRC32C checksum = new CRC32C();
+        checksum.update(buffer.array(), HEADER_SIZE, payloadSize);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, regions.size());
+        buffer.putInt(12, payloadSize);
+        buffer.putInt(16, (int) checksum.getValue());
+        buffer.position(0);
+        return buffer;
+    }
+
+    /**
+     * Validates the header and checksum of a store and decodes its regions.
+     *
+     * @param buffer The complete store, positioned at its start.
+     * @return The decoded regions.
+     * @throws IOException If the store is invalid.
+     */
+    static List<ProtectedRegion> decode(ByteBuffer buffer) throws IOException {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a region store");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION && version != VERSION_WITHOUT_FLAGS) {
+            throw new IOException("Unsupported region store version " + version);
+        }
+        int count = buffer.getInt();
+        int payloadSize = buffer.getInt();
+        int expectedChecksum = buffer.getInt();
+        if (count < 0 || payloadSize != buffer.remaining()) {
+            throw new IOException("Region store is truncated or has trailing data");
+        }
+
+        // Checksum the payload in place; a direct, mapped buffer is read without copying
+        CRC32C checksum = new CRC32C();
+        checksum.update(buffer.slice());
+        if ((int) checksum.getValue() != expectedChecksum) {
+            throw new IOException("Region store checksum mismatch");
+        }
+
+        try {
+            List<ProtectedRegion> regions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String name = getString(buffer);
+                String world = getString(buffer);
+                int flags = version == VERSION_WITHOUT_FLAGS ? RegionFlag.ALL : buffer.getInt() & RegionFlag.ALL;
+                regions.add(new ProtectedRegion(name, world, getShape(buffer), flags));
+            }
+            if (buffer.hasRemaining()) {
+                throw new IOException("Region store has " + buffer.remaining() + " bytes of trailing data");
+            }
+            return Collections.unmodifiableList(regions);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Region store is corrupt at byte " + (buffer.position() - start), e);
+        }
+    }
+
+    private static int shapeSize(RegionShape shape) {
+        if (shape instanceof CylinderShape || shape instanceof CuboidShape) {
+            return 6 * Double.BYTES;
+        }
+        if (shape instanceof SphereShape) {
+            return 4 * Double.BYTES;
+        }
+        if (shape instanceof PolygonShape polygon) {
+            return Integer.BYTES + (2 * polygon.xs.length + 2) * Double.BYTES;
+        }
+        throw new IllegalArgumentException("Unsupported shape " + shape.getClass().getSimpleName());
+    }
+
+    private static void putShape(ByteBuffer buffer, RegionShape shape) {
+        if (shape instanceof CylinderShape cylinder) {
+            buffer.put(CYLINDER);
+            buffer.putDouble(cylinder.cx).putDouble(cylinder.cy).putDouble(cylinder.cz).putDouble(cylinder.radius);
+            buffer.putDouble(cylinder.minY).putDouble(cylinder.maxY);
+        } else if (shape instanceof SphereShape sphere) {
+            buffer.put(SPHERE);
+            buffer.putDouble(sphere.cx).putDouble(sphere.cy).putDouble(sphere.cz).putDouble(sphere.radius);
+        } else if (shape instanceof CuboidShape cuboid) {
+            buffer.put(CUBOID);
+            buffer.putDouble(cuboid.minX).putDouble(cuboid.minY).putDouble(cuboid.minZ);
+            buffer.putDouble(cuboid.maxX).putDouble(cuboid.maxY).putDouble(cuboid.maxZ);
+        } else if (shape instanceof PolygonShape polygon) {
+            buffer.put(POLYGON);
+            buffer.putInt(polygon.xs.length);
+            for (double x : polygon.xs) {
+                buffer.putDouble(x);
+            }
+            for (double z : polygon.zs) {
+                buffer.putDouble(z);
+            }
+            buffer.putDouble(polygon.minY).putDouble(polygon.maxY);
+        } else {
+            throw new IllegalArgumentException("Unsupported shape " + shape.getClass().getSimpleName());
+        }
+    }
+
+    private static RegionShape getShape(ByteBuffer buffer) {
+        byte type = buffer.get();
+        return switch (type) {
+            case CYLINDER -> new CylinderShape(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+                    buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+            case SPHERE -> new SphereShape(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+            case CUBOID -> new CuboidShape(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+                    buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+            case POLYGON -> {
+                int vertices = buffer.getInt();
+                if (vertices < 0 || vertices > buffer.remaining() / (2 * Double.BYTES)) {
+                    throw new IllegalArgumentException("Invalid vertex count " + vertices);
+                }
+                double[] xs = new double[vertices];
+                double[] zs = new double[vertices];
+                for (int i = 0; i < vertices; i++) {
+                    xs[i] = buffer.getDouble();
+                }
+                for (int i = 0; i < vertices; i++) {
+                    zs[i] = buffer.getDouble();
+                }
+                yield new PolygonShape(xs, zs, buffer.getDouble(), buffer.getDouble());
+            }
+            default -> throw new IllegalArgumentException("Unknown shape tag " + type);
+        };
+    }
+
+    private static byte[] utf8(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Name is too long for the region store: " + value.substring(0, 32) + "...");
+        }
+        return bytes;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,77 @@
+package net.honeyberries.betterSpawnProtect.region;
+
+/**
+ * A shape defined by a center point and a radius. Only round shapes can be moved and resized
+ * through {@link ProtectedRegion#withCenter} and {@link ProtectedRegion#withRadius}, as done
+ * by the {@code setcenter} and {@code setradius} commands.
+ */
+abstract class RoundShape extends RegionShape {
+
+    final double cx, cy, cz, radius, radiusSq;
+
+    RoundShape(double cx, double cy, double cz, double radius, double minY, double maxY) {
+        super(cx - radius, minY, cz - radius, cx + radius, maxY, cz + radius);
+        this.cx = cx;
+        this.cy = cy;
+        this.cz = cz;
+        this.radius = radius;
+        this.radiusSq = radius * radius; // Pre-calculate the squared radius for efficiency
+    }
+
+    /**
+     * Returns a copy of this shape moved to a new center.
+     *
+     * @param x The new center X coordinate.
+     * @param y The new center Y coordinate.
+     * @param z The new center Z coordinate.
+     * @return The moved shape.
+     */
+    abstract RoundShape withCenter(double x, double y, double z);
+
+    /**
+     * Returns a copy of this shape with a new radius.
+     *
+     * @param radius The new radius.
+     * @return The resized shape.
+     */
+    abstract RoundShape withRadius(double radius);
+
+    /**
+     * Checks whether the given X/Z position lies within the circle of this shape.
+     */
+    final boolean inCircle(double x, double z) {
+        double dx = x - cx;
+        double dz = z - cz;
+        return (dx * dx + dz * dz) <= radiusSq;
+    }
+
+    @Override
+    boolean outlineIntersects(double minX, double minZ, double maxX, double maxZ) {
+        // Measure the distance from the center to the closest point of the rectangle
+        return inCircle(Math.max(minX, Math.min(cx, maxX)), Math.max(minZ, Math.min(cz, maxZ)));
+    }
+
+    @Override
+    public double getCenterX() {
+        return cx;
+    }
+
+    @Override
+    public double getCenterY() {
+        return cy;
+    }
+
+    @Override
+    public double getCenterZ() {
+        return cz;
+    }
+
+    /**
+     * Returns the radius of this shape.
+     *
+     * @return The radius.
+     */
+    public double getRadius() {
+        return radius;
+    }
+}
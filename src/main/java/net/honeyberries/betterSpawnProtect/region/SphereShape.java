@@ -0,0 +1,86 @@
+package net.honeyberries.betterSpawnProtect.region;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A sphere. Its Y range is derived from the center and radius, so it never covers a full
+ * column and is always tested per position.
+ */
+final class SphereShape extends RoundShape {
+
+    SphereShape(double cx, double cy, double cz, double radius) {
+        super(cx, cy, cz, Math.max(0, radius), cy - Math.max(0, radius), Math.nextUp(cy + Math.max(0, radius)));
+    }
+
+    @Override
+    boolean test(double x, double y, double z) {
+        double dx = x - cx;
+        double dy = y - cy;
+        double dz = z - cz;
+        return (dx * dx + dy * dy + dz * dz) <= radiusSq;
+    }
+
+    @Override
+    boolean outlineContains(double minX, double minZ, double maxX, double maxZ) {
+        // A sphere never contains a full column, and box checks use the overrides below
+        return false;
+    }
+
+    @Override
+    boolean containsBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        // Because the sphere is convex, it is enough to test the eight corners of the box
+        return test(minX, minY, minZ) && test(minX, minY, maxZ) && test(minX, maxY, minZ) && test(minX, maxY, maxZ)
+                && test(maxX, minY, minZ) && test(maxX, minY, maxZ) && test(maxX, maxY, minZ) && test(maxX, maxY, maxZ);
+    }
+
+    @Override
+    boolean intersectsBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        // Measure the distance from the center to the closest point of the box
+        return test(Math.max(minX, Math.min(cx, maxX)), Math.max(minY, Math.min(cy, maxY)), Math.max(minZ, Math.min(cz, maxZ)));
+    }
+
+    @Override
+    RoundShape withCenter(double x, double y, double z) {
+        return new SphereShape(x, y, z, radius);
+    }
+
+    @Override
+    RoundShape withRadius(double radius) {
+        return new SphereShape(cx, cy, cz, radius);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SphereShape other)) {
+            return false;
+        }
+        return Double.compare(cx, other.cx) == 0 && Double.compare(cy, other.cy) == 0
+                && Double.compare(cz, other.cz) == 0 && Double.compare(radius, other.radius) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(cx);
+        result = 31 * result + Double.hashCode(cy);
+        result = 31 * result + Double.hashCode(cz);
+        return 31 * result + Double.hashCode(radius);
+    }
+
+    @Override
+    public Map<String, Object> toConfig() {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("shape", "sphere");
+        config.put("center", point(cx, cy, cz));
+        config.put("radius", radius);
+        return config;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Sphere (%.2f, %.2f, %.2f), Radius: %.2f", cx, cy, cz, radius);
+    }
+}
@@ -1,77 +1,282 @@
 package net.honeyberries.betterSpawnProtect.task;
 
 import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
-import net.honeyberries.betterSpawnProtect.manager.ProtectionManager;
+import net.honeyberries.betterSpawnProtect.configuration.ConfigManager;
+import net.honeyberries.betterSpawnProtect.manager.BypassCache;
+import net.honeyberries.betterSpawnProtect.manager.RegionTracker;
+import net.honeyberries.betterSpawnProtect.metrics.EventMetric;
+import net.honeyberries.betterSpawnProtect.metrics.Metrics;
+import net.honeyberries.betterSpawnProtect.metrics.Outcome;
+import net.honeyberries.betterSpawnProtect.region.RegionFlag;
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
 /**
- * A repeating task that periodically checks and updates player game modes based on whether
- * they are inside or outside the protected spawn area. This task ensures that players
- * without bypass permissions are in Adventure mode while inside the spawn, and Survival
- * mode when outside.
+ * Keeps player game modes in line with the protected areas. Players without bypass permissions
+ * are put in Adventure mode while inside a region that protects against breaking or placing
+ * blocks, and back in Survival mode when outside. Regions allowing both are ignored, since
+ * Adventure mode would otherwise take away what they allow.
+ * <p>
+ * Game modes are updated when a player crosses a region boundary, as reported by the
+ * {@link RegionTracker} through the region events that the
+ * {@link net.honeyberries.betterSpawnProtect.listener.GamemodeListener} forwards. A
+ * low-frequency reconciliation sweep re-evaluates every online player as a safety net, for
+ * example after the protected area itself has changed.
+ * <p>
+ * By default the sweep is a single global task that schedules a one-off evaluation for every
+ * online player at once. In staggered mode, every player instead has one long-lived repeating
+ * task on their own entity scheduler, and the players are spread evenly over a configurable
+ * number of tick buckets, so that each tick only evaluates the players of one bucket and the
+ * work per tick stays flat as the player count grows. Buckets are aligned with the server's
+ * tick counter. On Folia, where every region ticks on its own, the players of one bucket are
+ * evaluated on the same tick of their respective regions, which spreads the work evenly per
+ * region only as far as each region's players spread evenly over the buckets.
  */
 public class GamemodeTask {
-    private final ProtectionManager protectionManager;
+
+    /**
+     * The number of ticks between two reconciliation sweeps.
+     */
+    private static final long SWEEP_INTERVAL_TICKS = 100L;
+
+    /**
+     * The flags of which a region must protect at least one to put players in Adventure mode.
+     * Adventure mode prevents breaking and placing, so a region allowing both of them leaves
+     * game modes alone.
+     */
+    public static final int ENFORCED_FLAGS = RegionFlag.BREAK.bit() | RegionFlag.PLACE.bit();
+
+    private final RegionTracker regionTracker;
+    private final BypassCache bypassCache;
+    private final Metrics metrics;
     private final Plugin plugin;
     private ScheduledTask task;
 
     /**
-     * Constructs a new {@code GamemodeTask} with the specified plugin and protection manager.
+     * The number of tick buckets in staggered mode, or {@code 0} while the global sweep is used.
+     */
+    private int buckets;
+
+    /**
+     * The number of players in each tick bucket, in staggered mode.
+     */
+    private int[] bucketSizes = new int[0];
+
+    /**
+     * The repeating task of every tracked player, in staggered mode.
+     */
+    private final Map<UUID, PlayerSweep> playerSweeps = new HashMap<>();
+
+    /**
+     * Constructs a new {@code GamemodeTask} with the specified plugin, region tracker, bypass
+     * cache and metrics.
      *
-     * @param plugin            The main plugin instance.
-     * @param protectionManager The manager for the protected area.
+     * @param plugin        The main plugin instance.
+     * @param regionTracker The tracker of the regions each player stands in.
+     * @param bypassCache   The cache of per-player bypass decisions.
+     * @param metrics       The metrics to report evaluations to.
      */
-    public GamemodeTask(Plugin plugin, ProtectionManager protectionManager) {
+    public GamemodeTask(Plugin plugin, RegionTracker regionTracker, BypassCache bypassCache, Metrics metrics) {
         this.plugin = plugin;
-        this.protectionManager = protectionManager;
+        this.regionTracker = regionTracker;
+        this.bypassCache = bypassCache;
+        this.metrics = metrics;
     }
 
     /**
-     * Starts the repeating task that checks and updates player game modes. The task runs
-     * once per tick. It iterates through all online players and adjusts their game mode
-     * based on their location and permissions.
-     */
-    public void startTask() {
-        task = Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, globalTask -> {
-            for (Player player : Bukkit.getOnlinePlayers()) {
-                player.getScheduler().run(plugin, scheduledTask -> {
-                    // Skip players who are not in Survival or Adventure, or who are dead
-                    if (player.getGameMode() != GameMode.SURVIVAL && player.getGameMode() != GameMode.ADVENTURE && player.isDead()) {
-                        return;
-                    }
-
-                    boolean isInProtectedArea = protectionManager.isProtected(player.getLocation());
-                    boolean hasBypassPermission = player.hasPermission("betterspawnprotect.bypass");
-
-                    if (isInProtectedArea) {
-                        // If the player has bypass permission and is in Adventure mode, switch to Survival
-                        if (hasBypassPermission && player.getGameMode() == GameMode.ADVENTURE) {
-                            player.setGameMode(GameMode.SURVIVAL);
-                        }
-                        // If the player does not have bypass permission and is in Survival mode, switch to Adventure
-                        else if (!hasBypassPermission && player.getGameMode() == GameMode.SURVIVAL) {
-                            player.setGameMode(GameMode.ADVENTURE);
-                        }
-                    } else if (player.getGameMode() == GameMode.ADVENTURE) {
-                        // If the player is outside the protected area and in Adventure mode, switch to Survival
-                        player.setGameMode(GameMode.SURVIVAL);
-                    }
-                }, null);
+     * Starts the reconciliation sweep in the mode selected by the configuration, or switches to
+     * it if the mode or the number of buckets has changed since the last call. The global sweep
+     * runs every {@value #SWEEP_INTERVAL_TICKS} ticks and re-evaluates every online player on
+     * their own entity scheduler. The staggered sweep re-evaluates every player once per
+     * {@code gamemode.staggered.buckets} ticks, one bucket of players per tick.
+     *
+     * @param configManager The configuration to apply.
+     */
+    public synchronized void apply(ConfigManager configManager) {
+        int wantedBuckets = configManager.isStaggeredSweepEnabled() ? configManager.getSweepBuckets() : 0;
+        if (task != null || buckets != 0) {
+            if (wantedBuckets == buckets) {
+                return;
             }
-        },
-            1, 1); // Run the task every tick
+            stopTask();
+        }
+
+        buckets = wantedBuckets;
+        if (buckets == 0) {
+            task = Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, globalTask -> refreshAll(),
+                    SWEEP_INTERVAL_TICKS, SWEEP_INTERVAL_TICKS);
+            return;
+        }
+        bucketSizes = new int[buckets];
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            track(player);
+        }
     }
 
     /**
-     * Stops the repeating task, preventing further game mode updates. This should be called
-     * when the plugin is disabled.
+     * Stops the reconciliation sweep in either mode. This should be called when the plugin is
+     * disabled.
      */
-    public void stopTask() {
+    public synchronized void stopTask() {
         if (task != null) {
             task.cancel();
+            task = null;
+        }
+        for (PlayerSweep sweep : playerSweeps.values()) {
+            sweep.task.cancel();
+        }
+        playerSweeps.clear();
+        buckets = 0;
+        bucketSizes = new int[0];
+    }
+
+    /**
+     * Gives the player their own repeating sweep task in staggered mode, in the tick bucket
+     * with the fewest players. This has no effect in global mode or if the player already has
+     * a task. The task ends by itself when the player leaves.
+     *
+     * @param player The player who joined.
+     */
+    public synchronized void track(Player player) {
+        UUID uuid = player.getUniqueId();
+        if (buckets == 0 || playerSweeps.containsKey(uuid)) {
+            return;
+        }
+
+        int bucket = 0;
+        for (int i = 1; i < buckets; i++) {
+            if (bucketSizes[i] < bucketSizes[bucket]) {
+                bucket = i;
+            }
+        }
+
+        // Start on the next tick whose number falls into the bucket, so that the players of a bucket share a tick
+        long delay = Math.floorMod(bucket - Bukkit.getCurrentTick() - 1L, (long) buckets) + 1;
+        PlayerSweep sweep = new PlayerSweep(bucket);
+        ScheduledTask playerTask = player.getScheduler().runAtFixedRate(plugin, scheduledTask -> refresh(player),
+                () -> untrack(uuid, sweep), delay, buckets);
+        if (playerTask == null) {
+            // The player is no longer valid
+            return;
+        }
+        sweep.task = playerTask;
+        playerSweeps.put(uuid, sweep);
+        bucketSizes[bucket]++;
+    }
+
+    /**
+     * Releases the bucket of a player whose task was retired because they left.
+     */
+    private synchronized void untrack(UUID uuid, PlayerSweep sweep) {
+        if (playerSweeps.remove(uuid, sweep) && sweep.bucket < bucketSizes.length) {
+            bucketSizes[sweep.bucket]--;
+        }
+    }
+
+    /**
+     * Schedules a full re-evaluation of every online player on their own entity scheduler.
+     */
+    public void refreshAll() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            scheduleRefresh(player);
+        }
+    }
+
+    /**
+     * Schedules a full re-evaluation of the player on their entity scheduler.
+     *
+     * @param player The player to re-evaluate.
+     */
+    public void scheduleRefresh(Player player) {
+        player.getScheduler().run(plugin, scheduledTask -> refresh(player), null);
+    }
+
+    /**
+     * Re-evaluates the player's regions and game mode at their current location, regardless of
+     * whether they crossed a region boundary. Any boundary crossing found on the way fires its
+     * region events as usual.
+     *
+     * @param player The player to re-evaluate.
+     */
+    public void refresh(Player player) {
+        long start = metrics.startTimer();
+        regionTracker.refresh(player);
+        enforce(player, regionTracker.isInside(player.getUniqueId(), ENFORCED_FLAGS));
+        metrics.record(EventMetric.GAMEMODE_REFRESH, start, Outcome.ALLOWED);
+    }
+
+    /**
+     * Handles a player entering or leaving a region, as reported by the region tracker.
+     *
+     * @param player The player who crossed a region boundary.
+     */
+    public void onRegionChange(Player player) {
+        long start = metrics.startTimer();
+        enforce(player, regionTracker.isInside(player.getUniqueId(), ENFORCED_FLAGS));
+        metrics.record(EventMetric.GAMEMODE_MOVE, start, Outcome.ALLOWED);
+    }
+
+    /**
+     * Adjusts the player's game mode based on whether they are in a protected area and on
+     * their permissions.
+     *
+     * @param player The player to adjust.
+     * @param inside Whether the player is inside a region protecting against breaking or placing.
+     */
+    private void enforce(Player player, boolean inside) {
+        GameMode gameMode = player.getGameMode();
+        // Skip players who are not in Survival or Adventure, or who are dead
+        if ((gameMode != GameMode.SURVIVAL && gameMode != GameMode.ADVENTURE) || player.isDead()) {
+            return;
+        }
+
+        // The bypass permission only matters inside a protected area
+        GameMode target = resolveGameMode(gameMode, inside, inside && bypassCache.hasBypassPermission(player));
+        if (target != gameMode) {
+            player.setGameMode(target);
+        }
+    }
+
+    /**
+     * Determines the game mode a Survival or Adventure player should be in.
+     *
+     * @param current             The player's current game mode.
+     * @param inside              Whether the player is inside a protected area.
+     * @param hasBypassPermission Whether the player has the bypass permission.
+     * @return The game mode the player should be in, which may equal {@code current}.
+     */
+    public static GameMode resolveGameMode(GameMode current, boolean inside, boolean hasBypassPermission) {
+        if (inside) {
+            // If the player has bypass permission and is in Adventure mode, switch to Survival
+            if (hasBypassPermission && current == GameMode.ADVENTURE) {
+                return GameMode.SURVIVAL;
+            }
+            // If the player does not have bypass permission and is in Survival mode, switch to Adventure
+            if (!hasBypassPermission && current == GameMode.SURVIVAL) {
+                return GameMode.ADVENTURE;
+            }
+        } else if (current == GameMode.ADVENTURE) {
+            // If the player is outside the protected area and in Adventure mode, switch to Survival
+            return GameMode.SURVIVAL;
+        }
+        return current;
+    }
+
+    /**
+     * The repeating sweep task of one player in staggered mode.
+     */
+    private static final class PlayerSweep {
+        private final int bucket;
+        private ScheduledTask task;
+
+        private PlayerSweep(int bucket) {
+            this.bucket = bucket;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,214 @@
+package net.honeyberries.betterSpawnProtect.task;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import net.honeyberries.betterSpawnProtect.manager.ProtectionManager;
+import net.honeyberries.betterSpawnProtect.region.ProtectedRegion;
+import net.honeyberries.betterSpawnProtect.region.RegionOutline;
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Draws the outlines of the protected regions with particles for the players who turned it on
+ * with {@code /bsp show}.
+ * <p>
+ * Every viewer has a repeating task on their own entity scheduler, so drawing runs on the
+ * thread that owns the player and stops by itself when the player leaves. The outlines are
+ * sampled once per shape, see {@link RegionOutline}, so a tick never computes any geometry:
+ * it skips regions whose bounding box is out of range, and emits the cached points within
+ * range of the viewer.
+ * <p>
+ * The number of particles per tick is limited by a budget. If more points are in range, the
+ * task draws every {@code n}-th of them, shifted by one point on each tick, so that the whole
+ * outline is covered over {@code n} ticks instead of flooding the client at once.
+ */
+public class OutlineRenderer {
+
+    /**
+     * The distance in blocks beyond which clients do not draw ordinary particles.
+     */
+    private static final double PARTICLE_RANGE = 32.0;
+
+    /**
+     * The height above the viewer's feet at which outlines that follow the viewer are drawn.
+     */
+    private static final double EYE_OFFSET = 1.0;
+
+    private final Plugin plugin;
+    private final ProtectionManager protectionManager;
+    private final Map<UUID, Viewer> viewers = new ConcurrentHashMap<>();
+    private volatile int particlesPerTick;
+
+    /**
+     * Constructs a new {@code OutlineRenderer} without any viewers.
+     *
+     * @param plugin            The plugin to schedule the drawing tasks for.
+     * @param protectionManager The manager holding the regions to draw.
+     * @param particlesPerTick  The maximum number of particles sent to one viewer per tick.
+     */
+    public OutlineRenderer(Plugin plugin, ProtectionManager protectionManager, int particlesPerTick) {
+        this.plugin = plugin;
+        this.protectionManager = protectionManager;
+        setParticlesPerTick(particlesPerTick);
+    }
+
+    /**
+     * Sets the maximum number of particles sent to one viewer per tick. Values below one are
+     * treated as one.
+     *
+     * @param particlesPerTick The particle budget per viewer and tick.
+     */
+    public void setParticlesPerTick(int particlesPerTick) {
+        this.particlesPerTick = Math.max(1, particlesPerTick);
+    }
+
+    /**
+     * Starts drawing the region outlines for the player, or stops if they are already shown.
+     *
+     * @param player The player to toggle the outlines for.
+     * @return {@code true} if the outlines are now shown, {@code false} if they were hidden.
+     */
+    public boolean toggle(Player player) {
+        UUID uuid = player.getUniqueId();
+        Viewer existing = viewers.remove(uuid);
+        if (existing != null) {
+            existing.task.cancel();
+            return false;
+        }
+
+        Viewer viewer = new Viewer();
+        ScheduledTask task = player.getScheduler().runAtFixedRate(plugin, scheduledTask -> draw(player, viewer),
+                () -> viewers.remove(uuid, viewer), 1L, 1L);
+        if (task == null) {
+            // The player is no longer valid
+            return false;
+        }
+        viewer.task = task;
+        viewers.put(uuid, viewer);
+        return true;
+    }
+
+    /**
+     * Checks whether the outlines are shown to the given player.
+     *
+     * @param uuid The UUID of the player.
+     * @return {@code true} if the player sees the outlines, {@code false} otherwise.
+     */
+    public boolean isShowing(UUID uuid) {
+        return viewers.containsKey(uuid);
+    }
+
+    /**
+     * Stops drawing for every viewer. This should be called when the plugin is disabled.
+     */
+    public void stopAll() {
+        for (Viewer viewer : viewers.values()) {
+            viewer.task.cancel();
+        }
+        viewers.clear();
+    }
+
+    /**
+     * Draws one tick of the outlines near the player. The points in range are counted first,
+     * which only costs arithmetic on cached coordinates, so that the budget can be spread
+     * evenly over the whole visible outline.
+     */
+    private void draw(Player player, Viewer viewer) {
+        Location location = player.getLocation();
+        String worldName = location.getWorld().getName();
+        double x = location.getX();
+        double y = location.getY() + EYE_OFFSET;
+        double z = location.getZ();
+        double range = Math.min(player.getViewDistance() * 16.0, PARTICLE_RANGE);
+        List<ProtectedRegion> regions = protectionManager.getSnapshot().getRegions();
+
+        int visible = 0;
+        for (ProtectedRegion region : regions) {
+            if (isInRange(region, worldName, x, z, range)) {
+                visible += emit(player, region.getShape().getOutline(), x, y, z, range, 0, 0);
+            }
+        }
+        if (visible == 0) {
+            return;
+        }
+
+        // Draw every stride-th point in range, starting at a different one on every tick
+        int budget = particlesPerTick;
+        int stride = (visible + budget - 1) / budget;
+        int phase = Math.floorMod(viewer.tick++, stride);
+        int seen = 0;
+        for (ProtectedRegion region : regions) {
+            if (isInRange(region, worldName, x, z, range)) {
+                seen += emit(player, region.getShape().getOutline(), x, y, z, range, stride, phase - seen);
+            }
+        }
+    }
+
+    /**
+     * Checks whether any part of the region's bounding box lies in the viewer's world and within
+     * range on the X/Z plane.
+     */
+    private static boolean isInRange(ProtectedRegion region, String worldName, double x, double z, double range) {
+        return region.getWorldName().equals(worldName)
+                && x >= region.getMinBlockX() - range && x <= region.getMaxBlockX() + 1 + range
+                && z >= region.getMinBlockZ() - range && z <= region.getMaxBlockZ() + 1 + range;
+    }
+
+    /**
+     * Walks the points of an outline that lie within range of the viewer, at every height the
+     * outline is drawn at.
+     *
+     * @param stride The distance between two drawn points in range, or {@code 0} to only count them.
+     * @param offset The index, relative to the first point in range of this outline, of a drawn point.
+     * @return The number of points in range.
+     */
+    private static int emit(Player player, RegionOutline outline, double x, double y, double z, double range,
+                            int stride, int offset) {
+        double rangeSq = range * range;
+        int levels = outline.levelCount();
+        double viewerLevel = outline.clampY(y);
+        int inRange = 0;
+        for (int point = 0; point < outline.size(); point++) {
+            double dx = outline.x(point) - x;
+            double dz = outline.z(point) - z;
+            double horizontalSq = dx * dx + dz * dz;
+            if (horizontalSq > rangeSq) {
+                continue;
+            }
+            for (int level = 0; level <= levels; level++) {
+                double pointY;
+                if (level < levels) {
+                    pointY = outline.level(level);
+                } else if (outline.followsViewer()) {
+                    pointY = viewerLevel;
+                } else {
+                    break;
+                }
+                double dy = pointY - y;
+                if (horizontalSq + dy * dy > rangeSq) {
+                    continue;
+                }
+                if (stride > 0 && Math.floorMod(inRange - offset, stride) == 0) {
+                    player.spawnParticle(Particle.HAPPY_VILLAGER, outline.x(point), pointY, outline.z(point), 1);
+                }
+                inRange++;
+            }
+        }
+        return inRange;
+    }
+
+    /**
+     * The drawing state of one viewer. Its fields are only touched on the viewer's entity
+     * scheduler, apart from the task itself, which is set before the viewer is published.
+     */
+    private static final class Viewer {
+        private ScheduledTask task;
+        private int tick;
+    }
+}
@@ -0,0 +1,79 @@
+package net.honeyberries.betterSpawnProtect.util;
+
+/**
+ * Utility methods for packing block and chunk coordinates into primitive {@code long} keys.
+ * Chunk keys use the same layout as Paper's {@code Chunk#getChunkKey()}, so they can be
+ * compared directly with keys obtained from the server.
+ */
+public final class CoordinateKeys {
+
+    private CoordinateKeys() {
+    }
+
+    /**
+     * Packs chunk coordinates into a single {@code long} key.
+     *
+     * @param chunkX The chunk X coordinate.
+     * @param chunkZ The chunk Z coordinate.
+     * @return The packed chunk key.
+     */
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX & 0xFFFFFFFFL) | (((long) chunkZ & 0xFFFFFFFFL) << 32);
+    }
+
+    /**
+     * Packs the chunk containing the given block coordinates into a single {@code long} key.
+     *
+     * @param blockX The block X coordinate.
+     * @param blockZ The block Z coordinate.
+     * @return The packed key of the chunk containing the block.
+     */
+    public static long chunkKeyOfBlock(int blockX, int blockZ) {
+        return chunkKey(blockX >> 4, blockZ >> 4);
+    }
+
+    /**
+     * Packs block coordinates into a single {@code long} key. X and Z keep their lowest 26 bits
+     * and Y its lowest 12 bits, so every position within the world border and the tallest
+     * possible world height maps to a distinct key. Unlike Paper's {@code Block#getBlockKey()},
+     * this layout does not alias worlds taller than 1024 blocks.
+     *
+     * @param blockX The block X coordinate.
+     * @param blockY The block Y coordinate.
+     * @param blockZ The block Z coordinate.
+     * @return The packed block key.
+     */
+    public static long blockKey(int blockX, int blockY, int blockZ) {
+        return ((long) blockX & 0x3FFFFFFL) | (((long) blockZ & 0x3FFFFFFL) << 26) | (((long) blockY & 0xFFFL) << 52);
+    }
+
+    /**
+     * Extracts the block X coordinate from a key packed by {@link #blockKey(int, int, int)}.
+     *
+     * @param blockKey The packed block key.
+     * @return The block X coordinate.
+     */
+    public static int blockKeyX(long blockKey) {
+        return (int) (blockKey << 38 >> 38);
+    }
+
+    /**
+     * Extracts the block Y coordinate from a key packed by {@link #blockKey(int, int, int)}.
+     *
+     * @param blockKey The packed block key.
+     * @return The block Y coordinate.
+     */
+    public static int blockKeyY(long blockKey) {
+        return (int) (blockKey >> 52);
+    }
+
+    /**
+     * Extracts the block Z coordinate from a key packed by {@link #blockKey(int, int, int)}.
+     *
+     * @param blockKey The packed block key.
+     * @return The block Z coordinate.
+     */
+    public static int blockKeyZ(long blockKey) {
+        return (int) (blockKey << 12 >> 38);
+    }
+}
@@ -0,0 +1,207 @@
+package net.honeyberries.betterSpawnProtect.util;
+
+import java.util.Arrays;
+
+/**
+ * A minimal open-addressed hash map keyed by primitive {@code long} values. It exists so that
+ * hot-path lookups by packed chunk or block coordinates never box their key into a {@link Long}.
+ * The map uses linear probing over power-of-two sized arrays and treats a {@code null} value slot
+ * as empty, so {@code null} values cannot be stored.
+ *
+ * @param <V> The type of the mapped values.
+ */
+public final class LongObjectMap<V> {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * Constructs an empty map sized to hold the given number of entries without resizing.
+     *
+     * @param expectedSize The number of entries the map is expected to hold.
+     */
+    public LongObjectMap(int expectedSize) {
+        int capacity = tableSizeFor(Math.max(4, (int) Math.ceil(expectedSize / LOAD_FACTOR)));
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Returns the value mapped to the given key.
+     *
+     * @param key The key to look up.
+     * @return The mapped value, or {@code null} if the key is not present.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = mix(key) & mask;
+        Object value;
+        while ((value = values[slot]) != null) {
+            if (keys[slot] == key) {
+                return (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Maps the given key to the given value, replacing any previous mapping.
+     *
+     * @param key   The key to map.
+     * @param value The value to store. Must not be {@code null}.
+     * @return The previously mapped value, or {@code null} if there was none.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("LongObjectMap does not support null values");
+        }
+        int slot = mix(key) & mask;
+        Object existing;
+        while ((existing = values[slot]) != null) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return (V) existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > (mask + 1) * LOAD_FACTOR) {
+            resize();
+        }
+        return null;
+    }
+
+    /**
+     * Removes the mapping for the given key, if present. Later entries of the probe sequence
+     * are shifted back so that lookups never need tombstones.
+     *
+     * @param key The key to remove.
+     * @return The previously mapped value, or {@code null} if there was none.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = mix(key) & mask;
+        Object existing;
+        while ((existing = values[slot]) != null) {
+            if (keys[slot] == key) {
+                shiftBack(slot);
+                size--;
+                return (V) existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Returns a shallow copy of this map. The copy shares the value instances but can be
+     * modified without affecting this map.
+     *
+     * @return The copied map.
+     */
+    public LongObjectMap<V> copy() {
+        LongObjectMap<V> copy = new LongObjectMap<>(0);
+        copy.keys = keys.clone();
+        copy.values = values.clone();
+        copy.mask = mask;
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return The entry count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all entries from the map while keeping its current capacity.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Invokes the given consumer for every entry in the map.
+     *
+     * @param consumer The consumer to invoke.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> consumer) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                consumer.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        int capacity = oldValues.length << 1;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void shiftBack(int slot) {
+        int last = slot;
+        while (true) {
+            slot = (slot + 1) & mask;
+            Object value = values[slot];
+            if (value == null) {
+                values[last] = null;
+                return;
+            }
+            int home = mix(keys[slot]) & mask;
+            // Move the entry back only if its home slot does not lie cyclically in (last, slot]
+            boolean movable = last <= slot ? (home <= last || home > slot) : (home <= last && home > slot);
+            if (movable) {
+                keys[last] = keys[slot];
+                values[last] = value;
+                last = slot;
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int tableSizeFor(int n) {
+        return Integer.highestOneBit(n - 1) << 1;
+    }
+
+    /**
+     * Receives the entries of a {@link LongObjectMap} during iteration.
+     *
+     * @param <V> The type of the mapped values.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+}
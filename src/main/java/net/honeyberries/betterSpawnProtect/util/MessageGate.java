@@ -1,26 +1,34 @@
 package net.honeyberries.betterSpawnProtect.util;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manages message sending cooldowns for individual players to prevent spam. This utility
  * ensures that messages are not sent to a player more frequently than a specified cooldown
  * period. It is particularly useful for notifying players about protection restrictions
  * without overwhelming them with messages.
+ * <p>
+ * The gate is safe to use from several region threads at once. Cooldowns are measured with
+ * the monotonic {@link System#nanoTime()} clock, and entries are dropped when a player quits
+ * or, through {@link #purgeExpired()}, once their cooldown has run out, so the gate does not
+ * grow with every player who has ever been denied.
  */
 public class MessageGate {
 
     /**
-     * The cooldown period in milliseconds.
+     * The cooldown period in nanoseconds. It may be changed by a reload while messages are
+     * being gated.
      */
-    private final long cooldownMs;
+    private volatile long cooldownNanos;
 
     /**
-     * A map storing the last time a message was sent to each player, identified by their UUID.
+     * A map storing the {@link System#nanoTime()} at which a message was last sent to each
+     * player, identified by their UUID.
      */
-    private final Map<UUID, Long> lastMessage = new HashMap<>();
+    private final Map<UUID, Long> lastMessage = new ConcurrentHashMap<>();
 
     /**
      * Constructs a new {@code MessageGate} with the specified cooldown period.
@@ -28,26 +36,70 @@ public class MessageGate {
      * @param cooldownMs The cooldown period in milliseconds.
      */
     public MessageGate(long cooldownMs) {
-        this.cooldownMs = cooldownMs;
+        setCooldown(cooldownMs);
+    }
+
+    /**
+     * Changes the cooldown period. Players already on cooldown are measured against the new
+     * period from their next message on.
+     *
+     * @param cooldownMs The cooldown period in milliseconds. Negative values are treated as zero.
+     */
+    public void setCooldown(long cooldownMs) {
+        this.cooldownNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, cooldownMs));
     }
 
     /**
      * Determines if a message can be sent to the player with the given UUID based on the
      * cooldown. If the player is not on cooldown, this method updates their last message
-     * time and returns {@code true}.
+     * time and returns {@code true}. The update is an atomic check-and-set, so concurrent
+     * callers for the same player cannot both be allowed through.
      *
      * @param uuid The UUID of the player.
      * @return {@code true} if the message can be sent, {@code false} otherwise.
      */
     public boolean canSend(UUID uuid) {
-        long currentTime = System.currentTimeMillis();
+        long currentTime = System.nanoTime();
         Long previous = lastMessage.get(uuid);
 
-        // If the player has no previous message time or the cooldown has expired
-        if (previous == null || (currentTime - previous) >= cooldownMs) {
-            lastMessage.put(uuid, currentTime);
-            return true;
+        // If the player has no previous message time, claim the slot if no one else did
+        if (previous == null) {
+            return lastMessage.putIfAbsent(uuid, currentTime) == null;
+        }
+        // If the cooldown has expired, replace the time only if it was not changed in the meantime.
+        // The entry may also have been purged concurrently, in which case the slot is claimed anew.
+        if (currentTime - previous >= cooldownNanos) {
+            return lastMessage.replace(uuid, previous, currentTime) || lastMessage.putIfAbsent(uuid, currentTime) == null;
         }
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * Forgets the cooldown of the player with the given UUID, typically when they leave the
+     * server.
+     *
+     * @param uuid The UUID of the player.
+     */
+    public void forget(UUID uuid) {
+        lastMessage.remove(uuid);
+    }
+
+    /**
+     * Removes every entry whose cooldown has run out. Such entries behave exactly like absent
+     * ones, so removing them only frees memory. This is meant to be called periodically.
+     */
+    public void purgeExpired() {
+        long currentTime = System.nanoTime();
+        long cooldown = cooldownNanos;
+        lastMessage.values().removeIf(previous -> currentTime - previous >= cooldown);
+    }
+
+    /**
+     * Returns the number of players currently tracked by the gate.
+     *
+     * @return The number of tracked players.
+     */
+    public int size() {
+        return lastMessage.size();
+    }
+}
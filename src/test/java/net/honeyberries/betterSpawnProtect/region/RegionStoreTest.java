@@ -0,0 +1,156 @@
+package net.honeyberries.betterSpawnProtect.region;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the binary region store: the current format must survive a round trip unchanged,
+ * stores of version 1 must still load, and every kind of damage must be rejected as a whole
+ * instead of silently dropping regions.
+ */
+class RegionStoreTest {
+
+    private static List<ProtectedRegion> sampleRegions() {
+        return List.of(
+                new ProtectedRegion("spawn", "world", RegionShape.cylinder(0.5, 64.0, 0.5, 64.0, Integer.MIN_VALUE, Integer.MAX_VALUE)),
+                new ProtectedRegion("arena", "world", RegionShape.cylinder(100.5, 70.0, -40.5, 12.0, 60, 90),
+                        RegionFlag.ALL & ~RegionFlag.ENTITY_DAMAGE.bit()),
+                new ProtectedRegion("dome", "world_nether", RegionShape.sphere(10.0, 80.0, 10.0, 25.0),
+                        RegionFlag.BREAK.bit() | RegionFlag.PLACE.bit()),
+                new ProtectedRegion("market", "world", RegionShape.cuboid(-20, Integer.MIN_VALUE, 5, 15, Integer.MAX_VALUE, 40)),
+                new ProtectedRegion("plaza é", "world", RegionShape.polygon(
+                        new double[]{0, 30, 30, 15, 0}, new double[]{0, 0, 20, 35, 20}, 50, 120), 0));
+    }
+
+    @Test
+    void roundTripPreservesRegionsAndFlags() throws IOException {
+        List<ProtectedRegion> regions = sampleRegions();
+        assertEquals(regions, RegionStore.decode(RegionStore.encode(regions)));
+    }
+
+    @Test
+    void roundTripThroughFile(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("regions.bin");
+        List<ProtectedRegion> regions = sampleRegions();
+        RegionStore.write(file, regions);
+
+        assertEquals(regions, RegionStore.read(file));
+        assertFalse(Files.exists(directory.resolve("regions.bin.tmp")));
+    }
+
+    @Test
+    void emptyStoreRoundTrips() throws IOException {
+        assertTrue(RegionStore.decode(RegionStore.encode(List.of())).isEmpty());
+    }
+
+    @Test
+    void versionOneStoreLoadsWithAllFlags() throws IOException {
+        byte[] name = "spawn".getBytes(StandardCharsets.UTF_8);
+        byte[] world = "world".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(2 * Short.BYTES + name.length + world.length + 1 + 6 * Double.BYTES);
+        payload.putShort((short) name.length).put(name);
+        payload.putShort((short) world.length).put(world);
+        // A cylinder record without the flags of version 2
+        payload.put((byte) 1);
+        payload.putDouble(0.5).putDouble(64.0).putDouble(0.5).putDouble(32.0)
+                .putDouble(Double.NEGATIVE_INFINITY).putDouble(Double.POSITIVE_INFINITY);
+
+        List<ProtectedRegion> regions = RegionStore.decode(store(RegionStore.VERSION_WITHOUT_FLAGS, 1, payload.array()));
+
+        ProtectedRegion expected = new ProtectedRegion("spawn", "world",
+                RegionShape.cylinder(0.5, 64.0, 0.5, 32.0, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertEquals(List.of(expected), regions);
+        assertEquals(RegionFlag.ALL, regions.get(0).getFlags());
+    }
+
+    @Test
+    void checksumMismatchIsRejected() {
+        byte[] bytes = encoded();
+        bytes[RegionStore.HEADER_SIZE + 3] ^= 0x40;
+
+        IOException e = assertThrows(IOException.class, () -> RegionStore.decode(ByteBuffer.wrap(bytes)));
+        assertTrue(e.getMessage().contains("checksum"), e.getMessage());
+    }
+
+    @Test
+    void truncatedPayloadIsRejected() {
+        byte[] bytes = encoded();
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 5);
+
+        assertThrows(IOException.class, () -> RegionStore.decode(ByteBuffer.wrap(truncated)));
+    }
+
+    @Test
+    void truncatedHeaderIsRejected() {
+        byte[] truncated = Arrays.copyOf(encoded(), RegionStore.HEADER_SIZE - 1);
+
+        assertThrows(IOException.class, () -> RegionStore.decode(ByteBuffer.wrap(truncated)));
+    }
+
+    @Test
+    void recordRunningPastThePayloadIsRejected() {
+        // A consistent header and checksum around a payload that ends in the middle of a record
+        byte[] payload = Arrays.copyOfRange(encoded(), RegionStore.HEADER_SIZE, RegionStore.HEADER_SIZE + 20);
+
+        IOException e = assertThrows(IOException.class, () -> RegionStore.decode(store(RegionStore.VERSION, 1, payload)));
+        assertTrue(e.getMessage().contains("corrupt"), e.getMessage());
+    }
+
+    @Test
+    void badMagicIsRejected() {
+        byte[] bytes = encoded();
+        ByteBuffer.wrap(bytes).putInt(0, 0x12345678);
+
+        IOException e = assertThrows(IOException.class, () -> RegionStore.decode(ByteBuffer.wrap(bytes)));
+        assertEquals("Not a region store", e.getMessage());
+    }
+
+    @Test
+    void unknownVersionIsRejected() {
+        byte[] bytes = encoded();
+        ByteBuffer.wrap(bytes).putInt(4, RegionStore.VERSION + 1);
+
+        IOException e = assertThrows(IOException.class, () -> RegionStore.decode(ByteBuffer.wrap(bytes)));
+        assertEquals("Unsupported region store version " + (RegionStore.VERSION + 1), e.getMessage());
+    }
+
+    @Test
+    void unreadableFileIsRejected(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("regions.bin");
+        Files.write(file, new byte[]{1, 2, 3});
+
+        assertThrows(IOException.class, () -> RegionStore.read(file));
+    }
+
+    private static byte[] encoded() {
+        ByteBuffer buffer = RegionStore.encode(sampleRegions());
+        return Arrays.copyOf(buffer.array(), buffer.limit());
+    }
+
+    /**
+     * Wraps a payload in a valid header of the given version.
+     */
+    private static ByteBuffer store(int version, int count, byte[] payload) {
+        CRC32C checksum = new CRC32C();
+        checksum.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(RegionStore.HEADER_SIZE + payload.length);
+        buffer.putInt(RegionStore.MAGIC).putInt(version).putInt(count).putInt(payload.length)
+                .putInt((int) checksum.getValue()).put(payload);
+        buffer.flip();
+        return buffer;
+    }
+}